@@ -0,0 +1,75 @@
+package com.reactivespring.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.exception.MoviesInfoException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-error cost of rejecting a request: the domain exception itself, and the body of a validation failure as it
+ * used to be built (a fresh pretty-printing {@code ObjectMapper} per error, sorted messages, stack-capturing
+ * exception) against the problem detail written by the shared encoder. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorPathBenchmark {
+
+    private static final ResolvableType PROBLEM_TYPE = ResolvableType.forClass(ProblemDetail.class);
+
+    Jackson2JsonEncoder encoder;
+    List<String> errorMsgs;
+
+    @Setup
+    public void setUp() {
+        encoder = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+        errorMsgs = List.of("MoviesInfo.name cannot be null/empty", "MoviesInfo.cast cannot be null/empty");
+    }
+
+    @Benchmark
+    public RuntimeException stackTraceException() {
+        return new RuntimeException("MovieInfo Already Exists in Db");
+    }
+
+    @Benchmark
+    public RuntimeException moviesInfoException() {
+        return new MoviesInfoException("MovieInfo Already Exists in Db");
+    }
+
+    @Benchmark
+    public String previousValidationBody() throws JsonProcessingException {
+        var sorted = errorMsgs.stream().sorted().toList();
+        return new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValueAsString(Map.of("statusCode", "400", "reason", "Bad Request", "errorMsgs", sorted));
+    }
+
+    @Benchmark
+    public int problemDetailBody() {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid request content");
+        problem.setProperty("errors", errorMsgs);
+        DataBuffer buffer = encoder.encodeValue(problem, DefaultDataBufferFactory.sharedInstance, PROBLEM_TYPE,
+                MediaType.APPLICATION_PROBLEM_JSON, Map.of());
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
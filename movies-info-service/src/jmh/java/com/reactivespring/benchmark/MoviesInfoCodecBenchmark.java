@@ -0,0 +1,83 @@
+package com.reactivespring.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of one page of movie infos in each negotiable encoding, per item. The payload size of
+ * the page in each encoding, and of gzipped JSON, is printed once per trial. Run with
+ * {@code ./gradlew jmh -Pjmh.includes=MoviesInfoCodecBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoviesInfoCodecBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final TypeReference<List<MoviesInfoDTO>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    ObjectMapper objectMapper;
+    List<MoviesInfoDTO> page;
+    byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        page = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> new MoviesInfoDTO(new MoviesInfo("Movie " + i + "-2005", "Movie " + i, 2005,
+                        List.of("Christian Bale", "Michael Caine"), LocalDate.of(2005, 6, 15), (long) i)))
+                .toList();
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d: %d bytes%n", format, PAGE_SIZE, encodedPage.length);
+        if (format.equals("json"))
+            System.out.printf("gzipped json page of %d: %d bytes%n", PAGE_SIZE, gzip(encodedPage).length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] encodePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<MoviesInfoDTO> decodePage() throws IOException {
+        return objectMapper.readValue(encodedPage, PAGE_TYPE);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package com.reactivespring.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-item cost of the read and write hot paths of movies-info-service: entity/DTO mapping, Jackson encoding of a
+ * single DTO, and encoding a whole {@code Flux<MoviesInfoDTO>} into {@link DataBuffer}s as WebFlux does for JSON
+ * array and NDJSON responses. Run with {@code ./gradlew jmh}; the gc profiler reports
+ * {@code gc.alloc.rate.norm}, the bytes allocated per item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoviesInfoMappingBenchmark {
+
+    private static final int FLUX_SIZE = 100;
+    private static final ResolvableType DTO_TYPE = ResolvableType.forClass(MoviesInfoDTO.class);
+
+    ObjectMapper objectMapper;
+    Jackson2JsonEncoder encoder;
+    MoviesInfo moviesInfo;
+    MoviesInfoDTO moviesInfoDTO;
+    List<MoviesInfoDTO> moviesInfoDTOs;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        encoder = new Jackson2JsonEncoder(objectMapper);
+        moviesInfo = new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Christian Bale", "Michael Caine"), LocalDate.of(2005, 6, 15));
+        moviesInfoDTO = new MoviesInfoDTO(moviesInfo);
+        moviesInfoDTOs = IntStream.range(0, FLUX_SIZE)
+                .mapToObj(i -> new MoviesInfoDTO(new MoviesInfo("Movie " + i + "-2005", "Movie " + i, 2005,
+                        List.of("Christian Bale", "Michael Caine"), LocalDate.of(2005, 6, 15))))
+                .toList();
+    }
+
+    @Benchmark
+    public MoviesInfoDTO toDto() {
+        return new MoviesInfoDTO(moviesInfo);
+    }
+
+    @Benchmark
+    public MoviesInfo toEntity() {
+        return moviesInfoDTO.toEntity();
+    }
+
+    @Benchmark
+    public byte[] encodeDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(moviesInfoDTO);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLUX_SIZE)
+    public void encodeFluxAsJsonArray(Blackhole blackhole) {
+        encodeFlux(MediaType.APPLICATION_JSON, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLUX_SIZE)
+    public void encodeFluxAsNdjson(Blackhole blackhole) {
+        encodeFlux(MediaType.APPLICATION_NDJSON, blackhole);
+    }
+
+    private void encodeFlux(MediaType mediaType, Blackhole blackhole) {
+        encoder.encode(Flux.fromIterable(moviesInfoDTOs), DefaultDataBufferFactory.sharedInstance, DTO_TYPE, mediaType, Map.of())
+                .doOnNext(buffer -> {
+                    blackhole.consume(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+    }
+}
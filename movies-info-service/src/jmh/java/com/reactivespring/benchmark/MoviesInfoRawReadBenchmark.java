@@ -0,0 +1,90 @@
+package com.reactivespring.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.codec.MoviesInfoJsonTranscoder;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per document of turning what the driver receives into one NDJSON line: the mapped path (decode to
+ * {@link Document}, map to the entity, copy to the DTO, Jackson) against the raw path that transcodes the BSON bytes
+ * directly. Both write into pooled Netty buffers as the server does. Compare {@code gc.alloc.rate.norm} from the gc
+ * profiler for the allocation saved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoviesInfoRawReadBenchmark {
+
+    DataBufferFactory bufferFactory;
+    ObjectMapper objectMapper;
+    MappingMongoConverter converter;
+    DocumentCodec documentCodec;
+    MoviesInfoJsonTranscoder transcoder;
+    RawBsonDocument rawDocument;
+
+    @Setup
+    public void setUp() {
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        documentCodec = new DocumentCodec();
+        transcoder = new MoviesInfoJsonTranscoder(objectMapper);
+
+        Document document = new Document();
+        converter.write(new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Christian Bale", "Michael Caine"),
+                LocalDate.of(2005, 6, 15), 3L), document);
+        rawDocument = new RawBsonDocument(document, documentCodec);
+    }
+
+    @Benchmark
+    public int mapped() throws IOException {
+        Document document = documentCodec.decode(rawDocument.asBsonReader(), DecoderContext.builder().build());
+        MoviesInfoDTO moviesInfoDTO = new MoviesInfoDTO(converter.read(MoviesInfo.class, document));
+        DataBuffer buffer = bufferFactory.allocateBuffer(256);
+        try (OutputStream out = buffer.asOutputStream()) {
+            objectMapper.writeValue(out, moviesInfoDTO);
+        }
+        buffer.write((byte) '\n');
+        return release(buffer);
+    }
+
+    @Benchmark
+    public int raw() {
+        return release(transcoder.transcode(rawDocument, bufferFactory));
+    }
+
+    private static int release(DataBuffer buffer) {
+        int written = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return written;
+    }
+}
@@ -0,0 +1,73 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.suggest.MoviesInfoTitleIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of one title autocomplete lookup over a million generated titles. {@code "the"} matches a large share of
+ * them and shows that ranking does not depend on how many titles share the prefix; {@code "zzz"} matches none. Run
+ * with {@code ./gradlew jmh} in {@link Mode#SampleTime} for the percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoviesInfoSuggestBenchmark {
+
+    private static final int TITLES = 1_000_000;
+    private static final String[] WORDS = {"the", "dark", "knight", "rises", "batman", "begins", "return", "of", "king",
+            "star", "wars", "empire", "strikes", "back", "night", "city", "lost", "in", "translation", "amélie", "love",
+            "war", "peace", "ghost", "shell", "blade", "runner", "road", "fury", "mad", "max"};
+
+    @Param({"the", "dark kn", "amel", "zzz"})
+    String query;
+
+    MoviesInfoTitleIndex moviesInfoTitleIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<MoviesInfo> movieInfos = IntStream.range(0, TITLES)
+                .mapToObj(i -> {
+                    StringBuilder name = new StringBuilder();
+                    for (int word = 0, words = 1 + random.nextInt(4); word < words; word++)
+                        name.append(word == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+                    int year = 1920 + random.nextInt(105);
+                    return new MoviesInfo(name + " " + i + "-" + year, name + " " + i, year, null, null);
+                })
+                .toList();
+        // only streamAll is called while loading
+        MoviesInfoRepository repository = (MoviesInfoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MoviesInfoRepository.class},
+                (proxy, method, args) -> Flux.fromIterable(movieInfos));
+        moviesInfoTitleIndex = new MoviesInfoTitleIndex(repository, true, 256, Integer.MAX_VALUE);
+        moviesInfoTitleIndex.load().block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        moviesInfoTitleIndex.close();
+    }
+
+    @Benchmark
+    public List<MoviesInfoSuggestion> suggest() {
+        return moviesInfoTitleIndex.suggest(query, 10);
+    }
+}
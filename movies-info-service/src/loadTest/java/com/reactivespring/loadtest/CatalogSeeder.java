@@ -0,0 +1,39 @@
+package com.reactivespring.loadtest;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.repository.MoviesInfoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Seeds a deterministic catalog: movie {@code i} is named {@code Movie i} and released in one of 70 years, so the
+ * driver can address any seeded movie or year without reading the catalog back.
+ */
+class CatalogSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    static String name(int index) {
+        return "Movie " + index;
+    }
+
+    static int year(int index) {
+        return 1950 + index % 70;
+    }
+
+    static String movieInfoId(int index) {
+        return name(index) + "-" + year(index);
+    }
+
+    static void seed(MoviesInfoRepository repository, int catalogSize) {
+        repository.deleteAll().block();
+        Flux.range(0, catalogSize)
+                .map(index -> new MoviesInfo(movieInfoId(index), name(index), year(index),
+                        List.of("Christian Bale", "Michael Caine"), LocalDate.of(year(index), 6, 15)))
+                .buffer(BATCH_SIZE)
+                .concatMap(repository::insert)
+                .blockLast();
+    }
+}
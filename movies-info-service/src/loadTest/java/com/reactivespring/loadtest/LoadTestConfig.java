@@ -0,0 +1,52 @@
+package com.reactivespring.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options of a load test run, given as {@code key=value} arguments:
+ * <ul>
+ *     <li>{@code catalog} movies seeded before the run (default 10000)</li>
+ *     <li>{@code rate} requests started per second, independent of how fast responses come back (default 500)</li>
+ *     <li>{@code warmup} and {@code duration} in seconds (default 10 and 30)</li>
+ *     <li>{@code mix} operation weights, e.g. {@code getById:70,byYear:20,add:5,update:5}</li>
+ *     <li>{@code connections} client connection pool size (default 500)</li>
+ *     <li>{@code seed} random seed for catalog and workload (default 42)</li>
+ *     <li>{@code report} path of the JSON report (default build/reports/loadtest/report.json)</li>
+ * </ul>
+ */
+public record LoadTestConfig(int catalogSize, int rate, Duration warmup, Duration duration,
+                             Map<Operation, Integer> mix, int connections, long seed, Path report) {
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, separator).replaceFirst("^--", ""), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(
+                Integer.parseInt(options.getOrDefault("catalog", "10000")),
+                Integer.parseInt(options.getOrDefault("rate", "500")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))),
+                parseMix(options.getOrDefault("mix", "getById:70,byYear:20,add:5,update:5")),
+                Integer.parseInt(options.getOrDefault("connections", "500")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Path.of(options.getOrDefault("report", "build/reports/loadtest/report.json")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
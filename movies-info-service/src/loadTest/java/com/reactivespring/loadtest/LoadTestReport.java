@@ -0,0 +1,47 @@
+package com.reactivespring.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Machine-readable result of one run, written as JSON so runs can be diffed. Latencies are in milliseconds and
+ * measured from each request's scheduled start.
+ */
+record LoadTestReport(Instant startedAt, LoadTestConfig config, double throughputPerSecond,
+                      Latency overall, Map<Operation, Latency> operations) {
+
+    record Latency(long count, long errors, double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static Latency of(Histogram histogram, long errors) {
+            return new Latency(histogram.getTotalCount(), errors,
+                    millis(histogram.getMean()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+
+    static LoadTestReport of(Instant startedAt, LoadTestConfig config, OpenLoopDriver driver) {
+        Map<Operation, Latency> operations = new EnumMap<>(Operation.class);
+        Histogram overall = new Histogram(3);
+        long totalErrors = 0;
+        for (Operation operation : config.mix().keySet()) {
+            Histogram histogram = driver.latencies.get(operation);
+            long errors = driver.errors.get(operation).sum();
+            overall.add(histogram);
+            totalErrors += errors;
+            operations.put(operation, Latency.of(histogram, errors));
+        }
+        double throughput = (double) overall.getTotalCount() / config.duration().toSeconds();
+        return new LoadTestReport(startedAt, config, throughput, Latency.of(overall, totalErrors), operations);
+    }
+}
@@ -0,0 +1,63 @@
+package com.reactivespring.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactivespring.MoviesInfoServiceApplication;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Boots movies-info-service on embedded Mongo, seeds the catalog and drives an open-loop mixed workload against it,
+ * printing and writing a {@link LoadTestReport}. Run with
+ * {@code ./gradlew loadTest -PloadTestArgs="rate=1000 duration=60"}.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.parse(args);
+        try (var context = new SpringApplicationBuilder(MoviesInfoServiceApplication.class)
+                .run("--spring.profiles.active=loadtest",
+                        "--server.port=0",
+                        "--de.flapdoodle.mongodb.embedded.version=6.0.4",
+                        "--moviesinfo.tracing.sample-rate=0",
+                        "--logging.level.root=WARN")) {
+            CatalogSeeder.seed(context.getBean(MoviesInfoRepository.class), config.catalogSize());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var connectionProvider = ConnectionProvider.builder("load-test")
+                    .maxConnections(config.connections())
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(Duration.ofSeconds(60))
+                    .build();
+            var webClient = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                    .build();
+
+            var driver = new OpenLoopDriver(webClient, config);
+            driver.run(config.warmup());
+            var startedAt = Instant.now();
+            driver.run(config.duration());
+            connectionProvider.disposeLater().block();
+
+            var report = LoadTestReport.of(startedAt, config, driver);
+            var objectMapper = new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                    .enable(SerializationFeature.INDENT_OUTPUT);
+            Files.createDirectories(config.report().toAbsolutePath().getParent());
+            objectMapper.writeValue(config.report().toFile(), report);
+            System.out.println(objectMapper.writeValueAsString(report));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.reactivespring.loadtest;
+
+import com.reactivespring.domain.MoviesInfoDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Starts requests at a fixed arrival rate regardless of how many are still outstanding, and measures each one from
+ * the moment it was due rather than the moment it was actually sent. A stall on the server therefore shows up in
+ * the latency of every request that should have been sent during it, instead of silently lowering the request
+ * rate (coordinated omission).
+ */
+class OpenLoopDriver {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final List<String> CAST = List.of("Christian Bale", "Michael Caine");
+
+    final WebClient webClient;
+    final LoadTestConfig config;
+    final Random random;
+    final Operation[] weightedOperations;
+    final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    final AtomicLong outstanding = new AtomicLong();
+    final AtomicLong added = new AtomicLong();
+
+    OpenLoopDriver(WebClient webClient, LoadTestConfig config) {
+        this.webClient = webClient;
+        this.config = config;
+        this.random = new Random(config.seed());
+        this.weightedOperations = config.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Drives the workload for {@code duration} and waits for the outstanding requests before returning.
+     */
+    void run(Duration duration) throws InterruptedException {
+        latencies.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        Scheduler ticker = Schedulers.newSingle("load-driver");
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long[] issued = {0};
+        Disposable ticks = ticker.schedulePeriodically(() -> {
+            long now = Math.min(System.nanoTime(), end);
+            long due = (now - start) / periodNanos;
+            for (; issued[0] < due; issued[0]++) {
+                issue(next(), start + issued[0] * periodNanos);
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+        TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        ticks.dispose();
+        ticker.dispose();
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private Operation next() {
+        return weightedOperations[random.nextInt(weightedOperations.length)];
+    }
+
+    private void issue(Operation operation, long intendedStartNanos) {
+        outstanding.incrementAndGet();
+        request(operation)
+                .doFinally(signal -> outstanding.decrementAndGet())
+                .subscribe(status -> {
+                    record(operation, intendedStartNanos);
+                    if (status.isError()) {
+                        errors.get(operation).increment();
+                    }
+                }, error -> {
+                    record(operation, intendedStartNanos);
+                    errors.get(operation).increment();
+                });
+    }
+
+    private void record(Operation operation, long intendedStartNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        latencies.get(operation).recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+    }
+
+    private Mono<HttpStatusCode> request(Operation operation) {
+        return switch (operation) {
+            case GET_BY_ID -> exchange(webClient.get()
+                    .uri("/moviesInfo/get/{movieId}", CatalogSeeder.movieInfoId(random.nextInt(config.catalogSize()))));
+            case BY_YEAR -> exchange(webClient.get()
+                    .uri("/moviesInfo/get?year={year}&limit={limit}", CatalogSeeder.year(random.nextInt(config.catalogSize())), 50)
+                    .accept(MediaType.APPLICATION_JSON));
+            case ADD -> exchange(webClient.post()
+                    .uri("/moviesInfo/add")
+                    .bodyValue(new MoviesInfoDTO(null, "Load Test " + added.incrementAndGet(), 2024, CAST, "2024-01-01")));
+            case UPDATE -> {
+                int index = random.nextInt(config.catalogSize());
+                yield exchange(webClient.put()
+                        .uri("/moviesInfo/update/{movieId}", CatalogSeeder.movieInfoId(index))
+                        .bodyValue(new MoviesInfoDTO(null, CatalogSeeder.name(index), CatalogSeeder.year(index), CAST, "2005-06-15")));
+            }
+        };
+    }
+
+    private Mono<HttpStatusCode> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()));
+    }
+}
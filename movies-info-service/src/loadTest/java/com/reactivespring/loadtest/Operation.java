@@ -0,0 +1,24 @@
+package com.reactivespring.loadtest;
+
+import java.util.Arrays;
+
+public enum Operation {
+
+    GET_BY_ID("getById"),
+    BY_YEAR("byYear"),
+    ADD("add"),
+    UPDATE("update");
+
+    final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + name));
+    }
+}
@@ -0,0 +1,134 @@
+package com.reactivespring.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over strings with 4-bit counters, sixteen to a {@code long}, updated lock free. A counter
+ * that reaches 15 sticks there: it may have lost count, so it is never decremented again. That only costs false
+ * positives, never a false negative.
+ * <p>
+ * Removing a string that was never added corrupts the counters of others, so callers only remove what they know
+ * they added.
+ */
+final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xF;
+    private static final long SATURATED = 0xF;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    final AtomicLongArray words;
+    final long counters;
+    final int hashes;
+
+    CountingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        // m = -n ln p / (ln 2)^2 counters and k = m / n ln 2 hashes minimize the false positive probability
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(words);
+        this.counters = (long) words * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++)
+            increment(counter(hash, i));
+    }
+
+    void remove(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++)
+            decrement(counter(hash, i));
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            long counter = counter(hash, i);
+            if (count(words.get(word(counter)), counter) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * The false positive probability at the current fill, {@code (non-zero counters / counters)^k}.
+     */
+    double expectedFalsePositiveProbability() {
+        long nonZero = 0;
+        for (int i = 0; i < words.length(); i++) {
+            long word = words.get(i);
+            for (int shift = 0; shift < Long.SIZE; shift += 4) {
+                if ((word >>> shift & COUNTER_MASK) != 0)
+                    nonZero++;
+            }
+        }
+        return Math.pow((double) nonZero / counters, hashes);
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private void increment(long counter) {
+        int word = word(counter);
+        long current;
+        do {
+            current = words.get(word);
+            if (count(current, counter) == SATURATED)
+                return;
+        } while (!words.compareAndSet(word, current, current + (1L << shift(counter))));
+    }
+
+    private void decrement(long counter) {
+        int word = word(counter);
+        long current;
+        do {
+            current = words.get(word);
+            long count = count(current, counter);
+            if (count == 0 || count == SATURATED)
+                return;
+        } while (!words.compareAndSet(word, current, current - (1L << shift(counter))));
+    }
+
+    /**
+     * The {@code i}th counter by double hashing, {@code h1 + i * h2} over the two halves of the hash.
+     */
+    private long counter(long hash, int i) {
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = hash >>> 32 | 1;
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private static int word(long counter) {
+        return (int) (counter / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long counter) {
+        return (int) (counter % COUNTERS_PER_WORD) * 4;
+    }
+
+    private static long count(long word, long counter) {
+        return word >>> shift(counter) & COUNTER_MASK;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, finished with the murmur3 mixer so both halves are well distributed.
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,83 @@
+package com.reactivespring.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.service.MoviesInfoWriteListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of movie infos by id. Hit, miss and eviction counts are published as
+ * {@code cache.*} meters tagged {@code cache=moviesInfo}. Every write evicts the movie infos it touched.
+ */
+@Component
+public class MoviesInfoCache implements MoviesInfoWriteListener, MeterBinder {
+
+    AsyncCache<String, MoviesInfoDTO> cache;
+
+    public MoviesInfoCache(@Value("${moviesinfo.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${moviesinfo.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached movie info or loads it. Concurrent misses for the same id share one load, and a
+     * subscriber cancelling does not cancel that load for the others. Empty results are not cached.
+     */
+    public Mono<MoviesInfoDTO> get(String movieInfoId, Function<String, Mono<MoviesInfoDTO>> loader) {
+        return Mono.defer(() -> Mono.fromFuture(cache.get(movieInfoId, (id, executor) -> loader.apply(id).toFuture()), true));
+    }
+
+    public void invalidate(String movieInfoId) {
+        cache.synchronous().invalidate(movieInfoId);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void onSaved(MoviesInfoDTO moviesInfoDTO) {
+        invalidate(moviesInfoDTO.getMovieInfoId());
+    }
+
+    @Override
+    public void onDeleted(String movieInfoId) {
+        invalidate(movieInfoId);
+    }
+
+    @Override
+    public void onDeletedAll() {
+        invalidateAll();
+    }
+
+    @Override
+    public void onWriteFailed(String movieInfoId) {
+        if (movieInfoId == null)
+            invalidateAll();
+        else
+            invalidate(movieInfoId);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "moviesInfo");
+    }
+}
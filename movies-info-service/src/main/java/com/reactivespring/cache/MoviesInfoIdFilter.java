@@ -0,0 +1,220 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.service.MoviesInfoWriteListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counting Bloom filter over the stored movie info ids, so lookups of ids that do not exist are answered without a
+ * round trip to Mongo. Built from the collection at startup and kept current by this instance's inserts and deletes.
+ * <p>
+ * A miss is only trusted if every insert went through this instance: an id inserted by another instance reads as
+ * missing here until the next load. Enable it only where that holds.
+ * <p>
+ * Lookups are counted as {@code moviesinfo.id.filter.lookups} tagged {@code rejected} (a miss, answered without Mongo),
+ * {@code false.positive} (the filter let an id through that Mongo did not have) or {@code present}. The observed false
+ * positive rate is {@code false.positive / (false.positive + rejected)}.
+ */
+@Component
+@Slf4j
+public class MoviesInfoIdFilter implements MoviesInfoWriteListener, MeterBinder {
+
+    MoviesInfoRepository moviesInfoRepository;
+    boolean enabled;
+    int loadBatchSize;
+    long expectedInsertions;
+    double falsePositiveProbability;
+    volatile CountingBloomFilter live;
+    // while a load runs, adds go to both filters so none is lost when it replaces the live one
+    volatile CountingBloomFilter building;
+    volatile boolean ready;
+    // odd while a load runs; see removalStamp
+    final AtomicLong generation = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    final AtomicLong falsePositives = new AtomicLong();
+    final AtomicLong present = new AtomicLong();
+
+    public MoviesInfoIdFilter(MoviesInfoRepository moviesInfoRepository,
+                              @Value("${moviesinfo.id-filter.enabled:false}") boolean enabled,
+                              @Value("${moviesinfo.stream.batch-size:256}") int loadBatchSize,
+                              @Value("${moviesinfo.id-filter.expected-insertions:1000000}") long expectedInsertions,
+                              @Value("${moviesinfo.id-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.moviesInfoRepository = moviesInfoRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.live = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            load().subscribe(null, e -> log.warn("Loading the movie info id filter failed, lookups stay on Mongo", e));
+    }
+
+    /**
+     * Builds a new filter from the ids in the collection and swaps it in. The current filter keeps answering
+     * meanwhile. Does nothing if a load is already running; keeping ids it would have dropped is safe.
+     */
+    public Mono<Void> load() {
+        return Mono.defer(() -> {
+                    long stable = generation.get();
+                    if (stable % 2 == 1 || !generation.compareAndSet(stable, stable + 1))
+                        return Mono.empty();
+                    CountingBloomFilter filter = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+                    building = filter;
+                    return Flux.defer(() -> moviesInfoRepository.streamAll(loadBatchSize))
+                            .map(MoviesInfo::getMovieInfoId)
+                            .doOnNext(filter::add)
+                            .count()
+                            .doOnNext(ids -> {
+                                live = filter;
+                                ready = true;
+                                log.info("Loaded movie info id filter of {} ids into {} bytes", ids, filter.sizeInBytes());
+                            })
+                            .doFinally(signal -> {
+                                building = null;
+                                generation.incrementAndGet();
+                            });
+                })
+                .then();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * False only if {@code movieInfoId} is certainly not stored. Always true until the filter is loaded.
+     */
+    public boolean mightContain(String movieInfoId) {
+        if (!isReady())
+            return true;
+        if (live.mightContain(movieInfoId))
+            return true;
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Records the outcome of a lookup {@link #mightContain} let through.
+     */
+    public void recordLookup(boolean found) {
+        if (isReady())
+            (found ? present : falsePositives).incrementAndGet();
+    }
+
+    /**
+     * Taken before a delete is sent, and passed to {@link #remove} once it is confirmed.
+     */
+    public long removalStamp() {
+        return generation.get();
+    }
+
+    /**
+     * Removes {@code movieInfoId} after Mongo confirmed deleting it. Skipped if a load ran since {@code stamp}: the
+     * load may have read the collection after the delete, so the id might never have been added to the filter now
+     * live. Leaving it costs a false positive at worst.
+     */
+    public void remove(String movieInfoId, long stamp) {
+        if (!enabled || stamp % 2 == 1)
+            return;
+        CountingBloomFilter filter = live;
+        if (generation.get() == stamp)
+            filter.remove(movieInfoId);
+    }
+
+    /**
+     * Updates leave the set of ids as it is. Adding on them too would raise counters that the single removal on
+     * delete never brings back to zero.
+     */
+    @Override
+    public void onSaved(MoviesInfoDTO moviesInfoDTO) {
+    }
+
+    @Override
+    public void onInserted(MoviesInfoDTO moviesInfoDTO) {
+        add(moviesInfoDTO.getMovieInfoId());
+    }
+
+    /**
+     * Deletions are applied through {@link #remove}, which knows whether a load raced them.
+     */
+    @Override
+    public void onDeleted(String movieInfoId) {
+    }
+
+    @Override
+    public void onDeletedAll() {
+        if (enabled)
+            load().subscribe(null, e -> log.warn("Reloading the movie info id filter failed", e));
+    }
+
+    /**
+     * A failed update or delete cannot have added an id, and an id it may have deleted is safe to keep.
+     */
+    @Override
+    public void onWriteFailed(String movieInfoId) {
+    }
+
+    /**
+     * The id may have been stored, so it is added: a false positive is safe, a false negative is not.
+     */
+    @Override
+    public void onInsertFailed(String movieInfoId) {
+        add(movieInfoId);
+    }
+
+    /**
+     * A load that read the collection before this write must not lose it when it swaps in, so the id also goes to the
+     * filter being built, or to the one that replaced {@code current} if the swap already happened.
+     */
+    private void add(String movieInfoId) {
+        if (!enabled || movieInfoId == null)
+            return;
+        CountingBloomFilter current = live;
+        current.add(movieInfoId);
+        CountingBloomFilter pending = building;
+        if (pending != null && pending != current)
+            pending.add(movieInfoId);
+        CountingBloomFilter swapped = live;
+        if (swapped != current && swapped != pending)
+            swapped.add(movieInfoId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registerLookups(registry, "rejected", rejected);
+        registerLookups(registry, "false.positive", falsePositives);
+        registerLookups(registry, "present", present);
+        Gauge.builder("moviesinfo.id.filter.expected.fpp", this, filter -> filter.live.expectedFalsePositiveProbability())
+                .description("False positive probability of the id filter at its current fill")
+                .register(registry);
+        Gauge.builder("moviesinfo.id.filter.bytes", this, filter -> filter.live.sizeInBytes())
+                .description("Heap used by the id filter counters")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static void registerLookups(MeterRegistry registry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("moviesinfo.id.filter.lookups", count, AtomicLong::get)
+                .description("Movie info lookups by id checked against the id filter")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
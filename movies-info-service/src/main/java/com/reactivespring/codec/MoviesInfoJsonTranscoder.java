@@ -0,0 +1,127 @@
+package com.reactivespring.codec;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.domain.MoviesInfoDTO;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a stored movie info straight from its BSON bytes as one NDJSON line, without building the
+ * {@code MoviesInfo} entity or the {@link MoviesInfoDTO}. The output matches what Jackson writes for the DTO:
+ * the same properties in the same order, {@code _id} renamed to {@code movieInfoId}, nulls omitted,
+ * {@code releaseDate} as an ISO date and the derived {@code movieInfoIdForVerification} last.
+ */
+public class MoviesInfoJsonTranscoder {
+
+    private static final char LINE_SEPARATOR = '\n';
+
+    JsonFactory jsonFactory;
+    // Spring Data stores a LocalDate as midnight in the default zone, so it is read back in the same zone
+    ZoneId zoneId;
+
+    public MoviesInfoJsonTranscoder(ObjectMapper objectMapper) {
+        this(objectMapper, ZoneId.systemDefault());
+    }
+
+    MoviesInfoJsonTranscoder(ObjectMapper objectMapper, ZoneId zoneId) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.zoneId = zoneId;
+    }
+
+    public DataBuffer transcode(RawBsonDocument document, DataBufferFactory bufferFactory) {
+        // JSON is about the size of the BSON it comes from; the buffer grows if not
+        DataBuffer buffer = bufferFactory.allocateBuffer(document.getByteBuffer().remaining());
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer.asOutputStream(), JsonEncoding.UTF8)) {
+            write(document, generator);
+            generator.writeRaw(LINE_SEPARATOR);
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+        return buffer;
+    }
+
+    private void write(RawBsonDocument document, JsonGenerator generator) throws IOException {
+        String movieInfoId = null;
+        String name = null;
+        Integer year = null;
+        List<String> cast = null;
+        String releaseDate = null;
+        Long version = null;
+
+        try (BsonBinaryReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String field = reader.readName();
+                if (reader.getCurrentBsonType() == BsonType.NULL) {
+                    reader.readNull();
+                    continue;
+                }
+                switch (field) {
+                    case "_id" -> movieInfoId = reader.getCurrentBsonType() == BsonType.OBJECT_ID
+                            ? reader.readObjectId().toHexString()
+                            : reader.readString();
+                    case "name" -> name = reader.readString();
+                    case "year" -> year = reader.readInt32();
+                    case "cast" -> cast = readStrings(reader);
+                    case "releaseDate" -> releaseDate = Instant.ofEpochMilli(reader.readDateTime()).atZone(zoneId).toLocalDate().toString();
+                    case "version" -> version = reader.getCurrentBsonType() == BsonType.INT32 ? reader.readInt32() : reader.readInt64();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+        }
+
+        generator.writeStartObject();
+        if (movieInfoId != null)
+            generator.writeStringField("movieInfoId", movieInfoId);
+        if (name != null)
+            generator.writeStringField("name", name);
+        if (year != null)
+            generator.writeNumberField("year", year);
+        if (cast != null) {
+            generator.writeArrayFieldStart("cast");
+            for (String member : cast)
+                generator.writeString(member);
+            generator.writeEndArray();
+        }
+        if (releaseDate != null)
+            generator.writeStringField("releaseDate", releaseDate);
+        if (version != null)
+            generator.writeNumberField("version", version);
+        generator.writeStringField("movieInfoIdForVerification", name + "-" + year);
+        generator.writeEndObject();
+    }
+
+    private static List<String> readStrings(BsonBinaryReader reader) {
+        List<String> values = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                values.add(null);
+            } else {
+                values.add(reader.readString());
+            }
+        }
+        reader.readEndArray();
+        return values;
+    }
+}
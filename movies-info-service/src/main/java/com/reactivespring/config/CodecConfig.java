@@ -0,0 +1,41 @@
+package com.reactivespring.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Binary encodings next to JSON, picked by the {@code Accept} and {@code Content-Type} headers. Both mappers are
+ * built from Boot's {@link Jackson2ObjectMapperBuilder}, so they follow the same {@code spring.jackson.*} settings as
+ * the JSON codec.
+ * <p>
+ * Smile can encode and decode streams ({@link #APPLICATION_STREAM_SMILE_VALUE}) and is offered on the streaming and
+ * bulk endpoints. The CBOR codec only handles single values, so it is offered wherever a whole body is written at
+ * once: single reads and pages.
+ */
+@Configuration
+public class CodecConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
+    @Bean
+    public CodecCustomizer binaryCodecs(Jackson2ObjectMapperBuilder smileMapperBuilder, Jackson2ObjectMapperBuilder cborMapperBuilder) {
+        ObjectMapper smileMapper = smileMapperBuilder.factory(new SmileFactory()).build();
+        ObjectMapper cborMapper = cborMapperBuilder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.reactivespring.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics Spring Boot does not switch on by itself: Reactor Netty server metrics and the time spent waiting to
+ * check a connection out of the Mongo pool. Boot already records {@code http.server.requests}, tagged with the
+ * route template rather than the raw path, and the {@code mongodb.driver.commands} and
+ * {@code mongodb.driver.pool.*} meters.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final int MAX_NETTY_URI_TAGS = 20;
+
+    @Bean
+    public NettyServerCustomizer nettyServerMetrics() {
+        return httpServer -> httpServer.metrics(true, MetricsConfig::uriTag);
+    }
+
+    @Bean
+    public MeterFilter nettyServerUriTagLimit() {
+        return MeterFilter.maximumAllowableTags("reactor.netty.http.server", "uri", MAX_NETTY_URI_TAGS, MeterFilter.deny());
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCheckoutMetrics(MeterRegistry meterRegistry) {
+        var listener = new MongoCheckoutMetrics(meterRegistry);
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener));
+    }
+
+    /**
+     * Reactor Netty only sees raw paths, so only the first path segment is kept as the {@code uri} tag.
+     */
+    static String uriTag(String uri) {
+        int query = uri.indexOf('?');
+        String path = query < 0 ? uri : uri.substring(0, query);
+        int secondSegment = path.indexOf('/', 1);
+        return secondSegment < 0 ? path : path.substring(0, secondSegment) + "/**";
+    }
+}
@@ -0,0 +1,41 @@
+package com.reactivespring.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code mongodb.driver.pool.checkout}: how long an operation waited for a pooled connection, per server.
+ * A growing checkout time means the pool, not the server, is what requests are queueing on.
+ * <p>
+ * Every operation checks a connection out, so the timer of each server is looked up once and kept.
+ */
+class MongoCheckoutMetrics implements ConnectionPoolListener {
+
+    final MeterRegistry meterRegistry;
+    final Map<ServerAddress, Timer> timers = new ConcurrentHashMap<>();
+
+    MongoCheckoutMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        timers.computeIfAbsent(event.getConnectionId().getServerId().getAddress(), this::timer)
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(ServerAddress serverAddress) {
+        return Timer.builder("mongodb.driver.pool.checkout")
+                .description("Time spent waiting to check a connection out of the pool")
+                .tag("server.address", serverAddress.toString())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.reactivespring.config;
+
+import com.reactivespring.domain.MoviesInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the indexes declared on {@link MoviesInfo} at startup. Spring Boot leaves automatic index creation off,
+ * so without this the year and cast queries would scan the whole collection.
+ */
+@Component
+@Slf4j
+public class MoviesInfoIndexInitializer {
+
+    ReactiveMongoTemplate reactiveMongoTemplate;
+    MongoMappingContext mongoMappingContext;
+
+    public MoviesInfoIndexInitializer(ReactiveMongoTemplate reactiveMongoTemplate, MongoMappingContext mongoMappingContext) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.mongoMappingContext = mongoMappingContext;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        createIndexes().block();
+    }
+
+    public Mono<Void> createIndexes() {
+        var indexOperations = reactiveMongoTemplate.indexOps(MoviesInfo.class);
+        return Flux.fromIterable(IndexResolver.create(mongoMappingContext).resolveIndexFor(MoviesInfo.class))
+                .concatMap(indexOperations::ensureIndex)
+                .doOnNext(indexName -> log.info("Ensured index {} on {}", indexName, reactiveMongoTemplate.getCollectionName(MoviesInfo.class)))
+                .then();
+    }
+}
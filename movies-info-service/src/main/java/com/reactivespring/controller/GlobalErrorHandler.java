@@ -1,11 +1,10 @@
 package com.reactivespring.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.reactivespring.exception.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,19 +12,29 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.List;
 
+/**
+ * Answers validation failures with an RFC 7807 {@code application/problem+json} body, written by the shared
+ * Jackson codec, and logs them rate limited and without a stack trace: a rejected payload is the client's
+ * fault and must not cost more than serving a valid one.
+ */
 @ControllerAdvice(assignableTypes = MoviesInfoController.class)
 @Slf4j
 public class GlobalErrorHandler {
 
+    RateLimitedLogger rateLimitedLog;
+
+    public GlobalErrorHandler(@Value("${moviesinfo.errors.log-per-second:10}") int logPerSecond) {
+        this.rateLimitedLog = new RateLimitedLogger(log, logPerSecond);
+    }
+
     @ExceptionHandler(WebExchangeBindException.class)
-    public ResponseEntity<String> handleException(WebExchangeBindException e) throws JsonProcessingException {
-        log.error("Caught handleException: {}", e.getMessage(), e);
+    public ResponseEntity<ProblemDetail> handleException(WebExchangeBindException e) {
         List<String> errorMsgs = e.getBindingResult().getAllErrors().stream()
                 .map(DefaultMessageSourceResolvable::getDefaultMessage)
-                .sorted().toList();
-        ObjectMapper mapper = new ObjectMapper();
-        ErrorResponse errors = new ErrorResponse("400", "Bad Request", errorMsgs);
-        String errorMsg = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(errors);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorMsg);
+                .toList();
+        rateLimitedLog.warn("Rejected invalid request: {}", errorMsgs);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid request content");
+        problem.setProperty("errors", errorMsgs);
+        return ResponseEntity.badRequest().body(problem);
     }
 }
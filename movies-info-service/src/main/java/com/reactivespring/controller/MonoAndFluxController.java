@@ -1,5 +1,6 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.tracing.ReactiveTracer;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,23 +12,29 @@ import java.time.Duration;
 @RestController
 public class MonoAndFluxController {
 
+    ReactiveTracer reactiveTracer;
+
+    public MonoAndFluxController(ReactiveTracer reactiveTracer) {
+        this.reactiveTracer = reactiveTracer;
+    }
+
     @GetMapping("/flux")
     public Flux<Integer> returnFlux() {
-        return Flux.just(1, 2, 3, 4).log();
+        return Flux.just(1, 2, 3, 4).transform(reactiveTracer.flux("flux"));
     }
 
     @GetMapping("/mono")
     public Mono<String> returnMono() {
-        return Mono.just("Hello World").log();
+        return Mono.just("Hello World").transform(reactiveTracer.mono("mono"));
     }
 
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Long> returnStream() {
-        return Flux.interval(Duration.ofSeconds(1)).take(5).log();
+        return Flux.interval(Duration.ofSeconds(1)).take(5).transform(reactiveTracer.flux("stream"));
     }
 
     @GetMapping(value = "/fluxStream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Integer> returnFluxStream() {
-        return Flux.just(1, 2, 3, 4).delayElements(Duration.ofSeconds(1)).log();
+        return Flux.just(1, 2, 3, 4).delayElements(Duration.ofSeconds(1)).transform(reactiveTracer.flux("fluxStream"));
     }
 }
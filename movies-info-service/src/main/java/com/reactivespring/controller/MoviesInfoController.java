@@ -1,25 +1,45 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.config.CodecConfig;
+import com.reactivespring.domain.MoviesInfoBatchResult;
+import com.reactivespring.domain.MoviesInfoChange;
 import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.domain.MoviesInfoETag;
+import com.reactivespring.domain.MoviesInfoPage;
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.exception.MoviesInfoConflictException;
 import com.reactivespring.exception.MoviesInfoException;
+import com.reactivespring.service.MoviesInfoChangeFeed;
 import com.reactivespring.service.MoviesInfoService;
+import com.reactivespring.tracing.ReactiveTracer;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @Slf4j
 @RequestMapping("/moviesInfo")
 public class MoviesInfoController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     MoviesInfoService moviesInfoService;
+    MoviesInfoChangeFeed moviesInfoChangeFeed;
+    ReactiveTracer reactiveTracer;
 
-    public MoviesInfoController(MoviesInfoService moviesInfoService) {
+    public MoviesInfoController(MoviesInfoService moviesInfoService, MoviesInfoChangeFeed moviesInfoChangeFeed, ReactiveTracer reactiveTracer) {
         this.moviesInfoService = moviesInfoService;
+        this.moviesInfoChangeFeed = moviesInfoChangeFeed;
+        this.reactiveTracer = reactiveTracer;
     }
 
     @PostMapping("/add")
@@ -29,28 +49,115 @@ public class MoviesInfoController {
                 .onErrorResume(MoviesInfoException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
     }
 
+    @PostMapping(value = "/addBatch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, CodecConfig.APPLICATION_STREAM_SMILE_VALUE, CodecConfig.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, CodecConfig.APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<MoviesInfoBatchResult> addMovieInfos(@RequestBody Flux<MoviesInfoDTO> moviesInfoDTOs) {
+        return moviesInfoService.addMovieInfos(moviesInfoDTOs);
+    }
+
     @GetMapping("/get/{movieId}")
     public Mono<ResponseEntity<MoviesInfoDTO>> getMovieInfo(@PathVariable String movieId) {
         return moviesInfoService.getMovieById(movieId)
-                .map(moviesInfoDTO -> ResponseEntity.ok(moviesInfoDTO))
+                .map(moviesInfoDTO -> ResponseEntity.ok().eTag(MoviesInfoETag.of(moviesInfoDTO)).body(moviesInfoDTO))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
+    /**
+     * With {@code If-None-Match} the page ETag is first computed from the index; a match is answered with 304
+     * without loading the documents.
+     */
     @GetMapping("/get")
-    public Flux<MoviesInfoDTO> getMovieInfosByYear(@RequestParam(value = "year", required = true) Integer year) {
-        return moviesInfoService.getMovieInfosByYear(year).log();
+    public Mono<ResponseEntity<List<MoviesInfoDTO>>> getMovieInfosByYear(@RequestParam(value = "year", required = true) Integer year,
+                                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                                        @RequestParam(value = "limit", required = false) Integer limit,
+                                                                        @RequestParam(value = "fields", required = false) String fields,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<List<MoviesInfoDTO>>> page = moviesInfoService.getMovieInfosByYearPage(year, cursor, limit, fields)
+                .transform(reactiveTracer.mono("getMovieInfosByYear"))
+                .map(this::toPageResponse);
+        Mono<ResponseEntity<List<MoviesInfoDTO>>> response = ifNoneMatch == null
+                ? page
+                : moviesInfoService.getMovieInfosByYearPageETag(year, cursor, limit, fields)
+                .flatMap(eTag -> MoviesInfoETag.matches(ifNoneMatch, eTag)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<List<MoviesInfoDTO>>build())
+                        : page);
+        return response
+                .onErrorResume(MoviesInfoException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
     }
 
+    /**
+     * Without a {@code cursor} or {@code limit} the whole collection is streamed as one JSON array, as before paging
+     * was added. Only a requested page is collected, to put its cursor and ETag in the headers.
+     */
     @GetMapping("/getAllMoviesInfo")
-    public Flux<MoviesInfoDTO> getAllMovies() {
-        return moviesInfoService.getAllMovies();
+    public Mono<ResponseEntity<Flux<MoviesInfoDTO>>> getAllMovies(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit,
+                                                                 @RequestParam(value = "fields", required = false) String fields) {
+        Mono<ResponseEntity<Flux<MoviesInfoDTO>>> response = cursor == null && limit == null
+                ? Mono.fromCallable(() -> ResponseEntity.ok(moviesInfoService.getAllMovies(fields)
+                        .transform(reactiveTracer.flux("getAllMovies"))))
+                : moviesInfoService.getMoviesPage(cursor, limit, fields)
+                .transform(reactiveTracer.mono("getAllMovies"))
+                .map(page -> pageHeaders(page).body(Flux.fromIterable(page.getContent())));
+        return response
+                .onErrorResume(MoviesInfoException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping(value = "/get", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE, CodecConfig.APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<MoviesInfoDTO> streamMovieInfosByYear(@RequestParam(value = "year", required = true) Integer year) {
+        return moviesInfoService.getMovieInfosByYear(year)
+                .transform(reactiveTracer.flux("streamMovieInfosByYear"));
+    }
+
+    @GetMapping(value = "/getAllMoviesInfo", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE, CodecConfig.APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<MoviesInfoDTO> streamAllMovies() {
+        return moviesInfoService.getAllMovies()
+                .transform(reactiveTracer.flux("streamAllMovies"));
+    }
+
+    @GetMapping(value = "/byYears", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, CodecConfig.APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<MoviesInfoDTO> getMovieInfosByYearRange(@RequestParam(value = "from") Integer fromYear,
+                                                        @RequestParam(value = "to") Integer toYear) {
+        return moviesInfoService.getMovieInfosByYearRange(fromYear, toYear)
+                .transform(reactiveTracer.flux("getMovieInfosByYearRange"));
+    }
+
+    @GetMapping(value = "/byCast", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, CodecConfig.APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<MoviesInfoDTO> getMovieInfosByCastMember(@RequestParam(value = "member") String castMember) {
+        return moviesInfoService.getMovieInfosByCastMember(castMember)
+                .transform(reactiveTracer.flux("getMovieInfosByCastMember"));
+    }
+
+    /**
+     * Title autocomplete: up to {@code limit} titles with a word starting with {@code q}, newest first.
+     */
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<List<MoviesInfoSuggestion>>> suggest(@RequestParam("q") String query,
+                                                                   @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return moviesInfoService.suggest(query, limit)
+                .transform(reactiveTracer.mono("suggest"))
+                .map(ResponseEntity::ok)
+                .onErrorResume(MoviesInfoException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MoviesInfoChange>> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return moviesInfoChangeFeed.changes(lastEventId);
     }
 
     @PutMapping("/update/{movieId}")
     public Mono<ResponseEntity<MoviesInfoDTO>> updateMovieInfo(@PathVariable String movieId, @RequestBody MoviesInfoDTO moviesInfoDTO) {
-        return moviesInfoService.updateMovieById(movieId, moviesInfoDTO)
-                .map(moviesInfoDTO1 -> ResponseEntity.ok(moviesInfoDTO1))
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+        return toUpdateResponse(moviesInfoService.updateMovieById(movieId, moviesInfoDTO));
+    }
+
+    /**
+     * Applies only the fields present in the body. Send the {@code version} last read to have the update rejected
+     * with 409 if someone else changed the movie info in between.
+     */
+    @PatchMapping("/{movieId}")
+    public Mono<ResponseEntity<MoviesInfoDTO>> patchMovieInfo(@PathVariable String movieId, @RequestBody MoviesInfoDTO patch) {
+        return toUpdateResponse(moviesInfoService.patchMovieById(movieId, patch));
     }
 
     @DeleteMapping("/delete/{movieId}")
@@ -64,4 +171,25 @@ public class MoviesInfoController {
         return moviesInfoService.deleteAllMovies();
     }
 
+    private Mono<ResponseEntity<MoviesInfoDTO>> toUpdateResponse(Mono<MoviesInfoDTO> updated) {
+        return updated
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(MoviesInfoConflictException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(MoviesInfoException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    private ResponseEntity<List<MoviesInfoDTO>> toPageResponse(MoviesInfoPage page) {
+        return pageHeaders(page).body(page.getContent());
+    }
+
+    private static ResponseEntity.BodyBuilder pageHeaders(MoviesInfoPage page) {
+        var response = ResponseEntity.ok();
+        if (page.getNext() != null)
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        if (page.getETag() != null)
+            response.eTag(page.getETag());
+        return response;
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.reactivespring.controller;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs at most {@code permitsPerSecond} messages per second and counts the rest, reporting the count with the
+ * next message that gets through. Keeps a flood of bad requests from turning into a flood of log I/O.
+ */
+class RateLimitedLogger {
+
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    final Logger logger;
+    final int permitsPerSecond;
+    final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    final AtomicInteger permitsUsed = new AtomicInteger();
+    final LongAdder suppressed = new LongAdder();
+
+    RateLimitedLogger(Logger logger, int permitsPerSecond) {
+        this.logger = logger;
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    void warn(String message, Object argument) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= INTERVAL_NANOS && windowStart.compareAndSet(start, now)) {
+            permitsUsed.set(0);
+        }
+        if (permitsUsed.incrementAndGet() > permitsPerSecond) {
+            suppressed.increment();
+            return;
+        }
+        long dropped = suppressed.sumThenReset();
+        if (dropped > 0) {
+            logger.warn(message + " ({} similar messages suppressed)", argument, dropped);
+        } else {
+            logger.warn(message, argument);
+        }
+    }
+}
@@ -3,7 +3,12 @@ package com.reactivespring.domain;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -13,13 +18,31 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "year_releaseDate", def = "{'year': 1, 'releaseDate': 1}"),
+        // keyset pages of a year projected to {movieInfoId, name, version}, and their ETags, are answered from this index alone
+        @CompoundIndex(name = "year_id_name_version_incarnation", def = "{'year': 1, '_id': 1, 'name': 1, 'version': 1, 'incarnation': 1}")
+})
 public class MoviesInfo {
 
     @Id
     private String movieInfoId;
     private String name;
+    @Indexed(name = "year")
     private Integer year;
+    @Indexed(name = "cast")
     private List<String> cast;
     private LocalDate releaseDate;
+    @Version
+    private Long version;
+    // stamped on insert; the version starts over when a movie info is deleted and inserted again, this does not
+    private ObjectId incarnation;
 
+    public MoviesInfo(String movieInfoId, String name, Integer year, List<String> cast, LocalDate releaseDate) {
+        this(movieInfoId, name, year, cast, releaseDate, null);
+    }
+
+    public MoviesInfo(String movieInfoId, String name, Integer year, List<String> cast, LocalDate releaseDate, Long version) {
+        this(movieInfoId, name, year, cast, releaseDate, version, null);
+    }
 }
@@ -0,0 +1,33 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviesInfoBatchResult {
+
+    private String movieInfoId;
+    private Status status;
+    private List<String> errorMsgs;
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+
+    public static MoviesInfoBatchResult created(String movieInfoId) {
+        return new MoviesInfoBatchResult(movieInfoId, Status.CREATED, List.of());
+    }
+
+    public static MoviesInfoBatchResult duplicate(String movieInfoId) {
+        return new MoviesInfoBatchResult(movieInfoId, Status.DUPLICATE, List.of("MovieInfo Already Exists in Db"));
+    }
+
+    public static MoviesInfoBatchResult invalid(String movieInfoId, List<String> errorMsgs) {
+        return new MoviesInfoBatchResult(movieInfoId, Status.INVALID, errorMsgs);
+    }
+}
@@ -0,0 +1,16 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviesInfoChange {
+
+    private String operation;
+    private String movieInfoId;
+    private MoviesInfoDTO movieInfo;
+
+}
@@ -0,0 +1,29 @@
+package com.reactivespring.domain;
+
+import com.reactivespring.exception.MoviesInfoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the url-safe Base64 form of the last {@code movieInfoId} of a page.
+ */
+public final class MoviesInfoCursor {
+
+    private MoviesInfoCursor() {
+    }
+
+    public static String encode(String movieInfoId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(movieInfoId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) throws MoviesInfoException {
+        if (cursor == null || cursor.isBlank())
+            return null;
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new MoviesInfoException("Invalid cursor: " + cursor);
+        }
+    }
+}
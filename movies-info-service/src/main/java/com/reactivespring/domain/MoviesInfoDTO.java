@@ -1,11 +1,13 @@
 package com.reactivespring.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -15,6 +17,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class MoviesInfoDTO {
     @Id
     private String movieInfoId;
@@ -26,18 +29,24 @@ public class MoviesInfoDTO {
     private List<@NotBlank(message="MoviesInfo.cast cannot be null/empty") String> cast;
     @NotNull(message="MoviesInfo.releaseDate cannot be null/empty")
     private String releaseDate;
+    private Long version;
+
+    public MoviesInfoDTO(String movieInfoId, String name, Integer year, List<String> cast, String releaseDate) {
+        this(movieInfoId, name, year, cast, releaseDate, null);
+    }
 
     public MoviesInfoDTO(MoviesInfo moviesInfo) {
         this.movieInfoId = moviesInfo.getMovieInfoId();
         this.name = moviesInfo.getName();
         this.year = moviesInfo.getYear();
         this.cast = moviesInfo.getCast();
-        this.releaseDate = moviesInfo.getReleaseDate().toString();
+        this.releaseDate = moviesInfo.getReleaseDate() == null ? null : moviesInfo.getReleaseDate().toString();
+        this.version = moviesInfo.getVersion();
     }
 
     public MoviesInfo toEntity() {
         this.setMovieInfoId(this.getName()+"-"+this.getYear());
-        return new MoviesInfo(this.getMovieInfoId(), this.getName(), this.getYear(), this.getCast(), LocalDate.parse(this.getReleaseDate()));
+        return new MoviesInfo(this.getMovieInfoId(), this.getName(), this.getYear(), this.getCast(), LocalDate.parse(this.getReleaseDate()), null, new ObjectId());
     }
 
     public String getMovieInfoIdForVerification() {
@@ -0,0 +1,73 @@
+package com.reactivespring.domain;
+
+import java.util.List;
+
+/**
+ * Strong entity tags for movie info reads. The version alone does not identify a state, as it starts over when a movie
+ * info is deleted and inserted again: a single movie info is tagged by its content, and a page by the
+ * {@code (movieInfoId, version, incarnation)} of each movie info, which the index holds, so the documents need not be loaded.
+ */
+public final class MoviesInfoETag {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private MoviesInfoETag() {
+    }
+
+    public static String of(MoviesInfoDTO moviesInfoDTO) {
+        long hash = hash(FNV_OFFSET_BASIS, moviesInfoDTO.getMovieInfoId());
+        hash = hash(hash, String.valueOf(moviesInfoDTO.getVersion()));
+        hash = hash(hash, moviesInfoDTO.getName());
+        hash = hash(hash, String.valueOf(moviesInfoDTO.getYear()));
+        hash = hash(hash, String.valueOf(moviesInfoDTO.getCast()));
+        return quote(hash(hash, moviesInfoDTO.getReleaseDate()));
+    }
+
+    /**
+     * @param moviesInfos the movie infos of the page, only id, version and incarnation are read
+     * @param hasNext     whether a next page exists, since that changes the cursor header
+     * @param fields      the projection, since that changes the body
+     */
+    public static String ofPage(List<MoviesInfo> moviesInfos, boolean hasNext, List<String> fields) {
+        long hash = hash(FNV_OFFSET_BASIS, String.join(",", fields));
+        for (MoviesInfo moviesInfo : moviesInfos) {
+            hash = hash(hash, moviesInfo.getMovieInfoId());
+            hash = hash(hash, String.valueOf(moviesInfo.getVersion()));
+            hash = hash(hash, String.valueOf(moviesInfo.getIncarnation()));
+        }
+        return quote(hash(hash, hasNext ? "next" : "last"));
+    }
+
+    /**
+     * Weak comparison of an {@code If-None-Match} header, as required for conditional GETs.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null)
+            return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/"))
+                trimmed = trimmed.substring(2);
+            if (trimmed.equals("*") || trimmed.equals(eTag))
+                return true;
+        }
+        return false;
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= FNV_PRIME;
+            }
+        }
+        // separator, so that ("ab", "c") and ("a", "bc") differ
+        hash ^= 0xff;
+        return hash * FNV_PRIME;
+    }
+
+    private static String quote(long hash) {
+        return '"' + Long.toHexString(hash) + '"';
+    }
+}
@@ -0,0 +1,36 @@
+package com.reactivespring.domain;
+
+import com.reactivespring.exception.MoviesInfoException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the {@code fields=} projection of the list endpoints. {@code movieInfoId} is always returned
+ * because keyset pagination needs it for the next cursor, and {@code version} and {@code incarnation} because the
+ * page ETag is built from them. {@code incarnation} is only read, never returned.
+ */
+public final class MoviesInfoFields {
+
+    private static final Set<String> PROJECTABLE = Set.of("movieInfoId", "name", "year", "cast", "releaseDate", "version");
+
+    private MoviesInfoFields() {
+    }
+
+    public static List<String> parse(String fields) throws MoviesInfoException {
+        if (fields == null || fields.isBlank())
+            return List.of();
+        Set<String> projection = new LinkedHashSet<>();
+        projection.add("movieInfoId");
+        projection.add("version");
+        projection.add("incarnation");
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (!PROJECTABLE.contains(trimmed))
+                throw new MoviesInfoException("Unknown field: " + trimmed);
+            projection.add(trimmed);
+        }
+        return List.copyOf(projection);
+    }
+}
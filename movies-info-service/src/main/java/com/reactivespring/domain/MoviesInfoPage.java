@@ -0,0 +1,21 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviesInfoPage {
+
+    private List<MoviesInfoDTO> content;
+    private String next;
+    private String eTag;
+
+    public MoviesInfoPage(List<MoviesInfoDTO> content, String next) {
+        this(content, next, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One title autocomplete match: just enough to show the title and fetch the full movie info.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviesInfoSuggestion {
+
+    private String movieInfoId;
+    private String name;
+    private Integer year;
+}
@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+/**
+ * The movie info was changed since the version the caller based its update on.
+ */
+public class MoviesInfoConflictException extends MoviesInfoException {
+    public MoviesInfoConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,11 @@
 package com.reactivespring.exception;
 
+/**
+ * Signals a request the service cannot honour (duplicate movie, invalid cursor or field list). It is raised for
+ * control flow and answered with a 4xx, never logged with a trace, so it skips the stack trace capture.
+ */
 public class MoviesInfoException extends RuntimeException {
     public MoviesInfoException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
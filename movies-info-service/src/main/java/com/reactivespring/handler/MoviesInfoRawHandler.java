@@ -0,0 +1,62 @@
+package com.reactivespring.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.codec.MoviesInfoJsonTranscoder;
+import com.reactivespring.service.MoviesInfoService;
+import com.reactivespring.tracing.ReactiveTracer;
+import org.bson.RawBsonDocument;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * NDJSON streams of the raw read path, see {@link MoviesInfoJsonTranscoder}. The buffers come from the response's
+ * buffer factory, which on Reactor Netty hands out pooled buffers that are released once written.
+ */
+@Component
+@ConditionalOnProperty(name = "moviesinfo.raw-read.enabled", havingValue = "true")
+public class MoviesInfoRawHandler {
+
+    MoviesInfoService moviesInfoService;
+    MoviesInfoJsonTranscoder transcoder;
+    ReactiveTracer reactiveTracer;
+
+    public MoviesInfoRawHandler(MoviesInfoService moviesInfoService, ObjectMapper objectMapper, ReactiveTracer reactiveTracer) {
+        this.moviesInfoService = moviesInfoService;
+        this.transcoder = new MoviesInfoJsonTranscoder(objectMapper);
+        this.reactiveTracer = reactiveTracer;
+    }
+
+    public Mono<ServerResponse> streamAllMovies(ServerRequest request) {
+        return ndjson(request, moviesInfoService.getAllMoviesRaw(), "streamAllMovies");
+    }
+
+    public Mono<ServerResponse> streamMovieInfosByYear(ServerRequest request) {
+        Integer year;
+        try {
+            year = Integer.valueOf(request.queryParam("year").orElse(""));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return ndjson(request, moviesInfoService.getMovieInfosByYearRaw(year), "streamMovieInfosByYear");
+    }
+
+    private Mono<ServerResponse> ndjson(ServerRequest request, Flux<RawBsonDocument> documents, String pipeline) {
+        DataBufferFactory bufferFactory = request.exchange().getResponse().bufferFactory();
+        Flux<DataBuffer> body = documents
+                .map(document -> transcoder.transcode(document, bufferFactory))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .transform(reactiveTracer.flux(pipeline));
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromDataBuffers(body));
+    }
+}
@@ -4,7 +4,7 @@ import com.reactivespring.domain.MoviesInfo;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 
-public interface MoviesInfoRepository extends ReactiveMongoRepository<MoviesInfo, String> {
+public interface MoviesInfoRepository extends ReactiveMongoRepository<MoviesInfo, String>, MoviesInfoRepositoryCustom {
 
     Flux<MoviesInfo> findByYear(Integer year);
 }
@@ -0,0 +1,83 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.MoviesInfo;
+import org.bson.RawBsonDocument;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+public interface MoviesInfoRepositoryCustom {
+
+    /**
+     * Inserts all movie infos with a single unordered bulk write, so one duplicate does not stop the rest.
+     *
+     * @return the positions in {@code moviesInfos} that were rejected because their id already exists
+     */
+    Mono<Set<Integer>> insertUnordered(List<MoviesInfo> moviesInfos);
+
+    /**
+     * Keyset page over all movie infos ordered by {@code _id}, starting strictly after {@code afterMovieInfoId}.
+     * A non-empty {@code fields} list restricts the returned properties.
+     */
+    Flux<MoviesInfo> findAllAfter(String afterMovieInfoId, int limit, List<String> fields);
+
+    /**
+     * Keyset page over the movie infos of one year ordered by {@code year, _id}, starting strictly after {@code afterMovieInfoId}.
+     * A non-empty {@code fields} list restricts the returned properties; {@code movieInfoId,name,version} is covered by an index.
+     */
+    Flux<MoviesInfo> findByYearAfter(Integer year, String afterMovieInfoId, int limit, List<String> fields);
+
+    /**
+     * Streams all movie infos with the driver cursor batch size capped at {@code batchSize}.
+     */
+    Flux<MoviesInfo> streamAll(int batchSize);
+
+    /**
+     * Streams the movie infos of one year with the driver cursor batch size capped at {@code batchSize}.
+     */
+    Flux<MoviesInfo> streamByYear(Integer year, int batchSize);
+
+    /**
+     * Streams the movie infos released from {@code fromYear} to {@code toYear} inclusive, ordered by {@code year, _id}.
+     */
+    Flux<MoviesInfo> streamByYearRange(Integer fromYear, Integer toYear, int batchSize);
+
+    /**
+     * Streams the movie infos whose cast includes {@code castMember}, ordered by {@code year, _id}.
+     */
+    Flux<MoviesInfo> streamByCastMember(String castMember, int batchSize);
+
+    /**
+     * Up to {@code limit} movie infos with a word of the name starting with {@code prefix}, ignoring case, newest first.
+     * An unanchored regex, so this scans the collection.
+     */
+    Flux<MoviesInfo> findByNameWordPrefix(String prefix, int limit);
+
+    /**
+     * {@link #streamAll} without entity mapping: the documents are returned as the undecoded bytes the driver received.
+     */
+    Flux<RawBsonDocument> streamAllRaw(int batchSize);
+
+    /**
+     * {@link #streamByYear} without entity mapping: the documents are returned as the undecoded bytes the driver received.
+     */
+    Flux<RawBsonDocument> streamByYearRaw(Integer year, int batchSize);
+
+    /**
+     * Applies {@code update} and increments the version in a single find-and-modify. With an
+     * {@code expectedVersion} the update only applies if the stored version still matches.
+     *
+     * @return the updated movie info, or empty if there is no movie info with that id and version
+     */
+    Mono<MoviesInfo> updateVersioned(String movieInfoId, Long expectedVersion, Update update);
+
+    /**
+     * Deletes the movie info with that id.
+     *
+     * @return the number of movie infos deleted, 0 or 1
+     */
+    Mono<Long> deleteByIdCounted(String movieInfoId);
+}
@@ -0,0 +1,159 @@
+package com.reactivespring.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.reactivespring.domain.MoviesInfo;
+import org.bson.RawBsonDocument;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class MoviesInfoRepositoryCustomImpl implements MoviesInfoRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public MoviesInfoRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Set<Integer>> insertUnordered(List<MoviesInfo> moviesInfos) {
+        // bulk inserts bypass the version initialisation of insert(), so start the documents at version 0 here
+        moviesInfos.stream()
+                .filter(moviesInfo -> moviesInfo.getVersion() == null)
+                .forEach(moviesInfo -> moviesInfo.setVersion(0L));
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MoviesInfo.class)
+                .insert(moviesInfos)
+                .execute()
+                .map(bulkWriteResult -> Set.<Integer>of())
+                .onErrorResume(e -> !writeErrors(e).isEmpty(), e -> {
+                    Set<Integer> duplicates = new HashSet<>();
+                    for (BulkWriteError writeError : writeErrors(e)) {
+                        if (writeError.getCode() != DUPLICATE_KEY_ERROR)
+                            return Mono.error(e);
+                        duplicates.add(writeError.getIndex());
+                    }
+                    return Mono.just(duplicates);
+                });
+    }
+
+    @Override
+    public Flux<MoviesInfo> findAllAfter(String afterMovieInfoId, int limit, List<String> fields) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "movieInfoId"))
+                .limit(limit);
+        if (afterMovieInfoId != null)
+            query.addCriteria(Criteria.where("movieInfoId").gt(afterMovieInfoId));
+        return reactiveMongoTemplate.find(project(query, fields), MoviesInfo.class);
+    }
+
+    @Override
+    public Flux<MoviesInfo> findByYearAfter(Integer year, String afterMovieInfoId, int limit, List<String> fields) {
+        Criteria criteria = Criteria.where("year").is(year);
+        if (afterMovieInfoId != null)
+            criteria = criteria.and("movieInfoId").gt(afterMovieInfoId);
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "year", "movieInfoId"))
+                .limit(limit);
+        return reactiveMongoTemplate.find(project(query, fields), MoviesInfo.class);
+    }
+
+    private static Query project(Query query, List<String> fields) {
+        if (!fields.isEmpty())
+            query.fields().include(fields.toArray(String[]::new));
+        return query;
+    }
+
+    @Override
+    public Flux<MoviesInfo> streamAll(int batchSize) {
+        return reactiveMongoTemplate.find(new Query().cursorBatchSize(batchSize), MoviesInfo.class);
+    }
+
+    @Override
+    public Flux<MoviesInfo> streamByYear(Integer year, int batchSize) {
+        Query query = new Query(Criteria.where("year").is(year)).cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, MoviesInfo.class);
+    }
+
+    @Override
+    public Flux<MoviesInfo> streamByYearRange(Integer fromYear, Integer toYear, int batchSize) {
+        Query query = new Query(Criteria.where("year").gte(fromYear).lte(toYear))
+                .with(Sort.by("year", "_id"))
+                .cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, MoviesInfo.class);
+    }
+
+    @Override
+    public Flux<MoviesInfo> streamByCastMember(String castMember, int batchSize) {
+        Query query = new Query(Criteria.where("cast").is(castMember))
+                .with(Sort.by("year", "_id"))
+                .cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, MoviesInfo.class);
+    }
+
+    @Override
+    public Flux<MoviesInfo> findByNameWordPrefix(String prefix, int limit) {
+        Query query = new Query(Criteria.where("name").regex("(^|\\W)" + Pattern.quote(prefix), "i"))
+                .with(Sort.by(Sort.Order.desc("year"), Sort.Order.asc("name"), Sort.Order.asc("_id")))
+                .limit(limit);
+        query.fields().include("name", "year");
+        return reactiveMongoTemplate.find(query, MoviesInfo.class);
+    }
+
+    @Override
+    public Flux<RawBsonDocument> streamAllRaw(int batchSize) {
+        return rawCollection().flatMapMany(collection -> collection.find().batchSize(batchSize));
+    }
+
+    @Override
+    public Flux<RawBsonDocument> streamByYearRaw(Integer year, int batchSize) {
+        return rawCollection().flatMapMany(collection -> collection.find(Filters.eq("year", year)).batchSize(batchSize));
+    }
+
+    private Mono<MongoCollection<RawBsonDocument>> rawCollection() {
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(MoviesInfo.class))
+                .map(collection -> collection.withDocumentClass(RawBsonDocument.class));
+    }
+
+    private static List<BulkWriteError> writeErrors(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkOperationException bulkOperationException)
+                return bulkOperationException.getErrors();
+            if (cause instanceof MongoBulkWriteException mongoBulkWriteException)
+                return mongoBulkWriteException.getWriteErrors();
+        }
+        return List.of();
+    }
+
+    @Override
+    public Mono<MoviesInfo> updateVersioned(String movieInfoId, Long expectedVersion, Update update) {
+        Criteria criteria = Criteria.where("movieInfoId").is(movieInfoId);
+        if (expectedVersion != null)
+            criteria = criteria.and("version").is(expectedVersion);
+        return reactiveMongoTemplate.findAndModify(new Query(criteria), update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true), MoviesInfo.class);
+    }
+
+    @Override
+    public Mono<Long> deleteByIdCounted(String movieInfoId) {
+        return reactiveMongoTemplate.remove(new Query(Criteria.where("movieInfoId").is(movieInfoId)), MoviesInfo.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+}
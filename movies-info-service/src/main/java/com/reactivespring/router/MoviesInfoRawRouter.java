@@ -0,0 +1,40 @@
+package com.reactivespring.router;
+
+import com.reactivespring.handler.MoviesInfoRawHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * With {@code moviesinfo.raw-read.enabled}, NDJSON requests for the streaming listings are served from raw BSON.
+ * Router functions are consulted before the annotated controllers, so these routes take over from
+ * {@code MoviesInfoController} for exactly these requests; every other media type is still served by the controller.
+ */
+@Configuration
+@ConditionalOnProperty(name = "moviesinfo.raw-read.enabled", havingValue = "true")
+public class MoviesInfoRawRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> moviesInfoRawRoute(MoviesInfoRawHandler moviesInfoRawHandler) {
+        return route()
+                .nest(path("/moviesInfo").and(MoviesInfoRawRouter::acceptsNdjson), builder -> builder
+                        .GET("/getAllMoviesInfo", moviesInfoRawHandler::streamAllMovies)
+                        .GET("/get", queryParam("year", year -> true), moviesInfoRawHandler::streamMovieInfosByYear))
+                .build();
+    }
+
+    /**
+     * Only an explicit NDJSON {@code Accept}; wildcards keep going to the paged JSON endpoints.
+     */
+    private static boolean acceptsNdjson(ServerRequest request) {
+        return request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+}
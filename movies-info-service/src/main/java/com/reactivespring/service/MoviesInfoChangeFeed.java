@@ -0,0 +1,77 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoChange;
+import com.reactivespring.domain.MoviesInfoDTO;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Live feed of inserts, updates and deletes on the movie info collection, tailed from a Mongo change stream.
+ * Every event id is the change stream resume token, so an SSE client reconnecting with {@code Last-Event-ID}
+ * continues right after the last event it saw.
+ */
+@Service
+public class MoviesInfoChangeFeed {
+
+    private static final Set<String> PUBLISHED_OPERATIONS = Set.of("insert", "update", "replace", "delete");
+
+    ReactiveMongoTemplate reactiveMongoTemplate;
+    int subscriberBufferSize;
+    Flux<ServerSentEvent<MoviesInfoChange>> liveChanges;
+
+    public MoviesInfoChangeFeed(ReactiveMongoTemplate reactiveMongoTemplate,
+                                @Value("${moviesinfo.changes.subscriber-buffer-size:1024}") int subscriberBufferSize) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.subscriberBufferSize = subscriberBufferSize;
+        // one change stream for all live subscribers, opened by the first and closed after the last leaves
+        this.liveChanges = changeStream(ChangeStreamOptions.builder().returnFullDocumentOnUpdate().build()).share();
+    }
+
+    /**
+     * Subscribers without a resume token share the live change stream. A resuming subscriber needs the events
+     * it missed, so it gets its own change stream started after its token. A subscriber that falls more than
+     * {@code subscriberBufferSize} events behind is dropped instead of stalling the others; it can reconnect
+     * with its last event id.
+     */
+    public Flux<ServerSentEvent<MoviesInfoChange>> changes(String lastEventId) {
+        Flux<ServerSentEvent<MoviesInfoChange>> changes = lastEventId == null || lastEventId.isBlank()
+                ? liveChanges
+                : changeStream(ChangeStreamOptions.builder()
+                        .returnFullDocumentOnUpdate()
+                        .resumeAfter(new BsonDocument("_data", new BsonString(lastEventId)))
+                        .build());
+        return changes.onBackpressureBuffer(subscriberBufferSize);
+    }
+
+    private Flux<ServerSentEvent<MoviesInfoChange>> changeStream(ChangeStreamOptions options) {
+        return reactiveMongoTemplate.changeStream(reactiveMongoTemplate.getCollectionName(MoviesInfo.class), options, MoviesInfo.class)
+                .filter(event -> event.getOperationType() != null && PUBLISHED_OPERATIONS.contains(event.getOperationType().getValue()))
+                .map(this::toServerSentEvent);
+    }
+
+    private ServerSentEvent<MoviesInfoChange> toServerSentEvent(ChangeStreamEvent<MoviesInfo> event) {
+        String operation = event.getOperationType().getValue();
+        MoviesInfo moviesInfo = event.getBody();
+        MoviesInfoChange change = new MoviesInfoChange(operation, movieInfoId(event), moviesInfo == null ? null : new MoviesInfoDTO(moviesInfo));
+        return ServerSentEvent.<MoviesInfoChange>builder()
+                .id(((BsonDocument) event.getResumeToken()).getString("_data").getValue())
+                .event(operation)
+                .data(change)
+                .build();
+    }
+
+    private static String movieInfoId(ChangeStreamEvent<MoviesInfo> event) {
+        BsonDocument documentKey = event.getRaw() == null ? null : event.getRaw().getDocumentKey();
+        return documentKey == null ? null : documentKey.getString("_id").getValue();
+    }
+}
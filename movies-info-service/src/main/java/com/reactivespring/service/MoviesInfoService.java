@@ -1,67 +1,440 @@
 package com.reactivespring.service;
 
+import com.reactivespring.cache.MoviesInfoCache;
+import com.reactivespring.cache.MoviesInfoIdFilter;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoBatchResult;
+import com.reactivespring.domain.MoviesInfoCursor;
 import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.domain.MoviesInfoETag;
+import com.reactivespring.domain.MoviesInfoFields;
+import com.reactivespring.domain.MoviesInfoPage;
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.exception.MoviesInfoConflictException;
 import com.reactivespring.exception.MoviesInfoException;
 import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.snapshot.MoviesInfoSnapshot;
+import com.reactivespring.suggest.MoviesInfoTitleIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
-import java.util.Optional;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class MoviesInfoService {
 
+    private static final List<String> VERSION_PROJECTION = List.of("movieInfoId", "version", "incarnation");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int UNPAGED = Integer.MAX_VALUE;
+
     MoviesInfoRepository moviesInfoRepository;
+    MoviesInfoCache moviesInfoCache;
+    MoviesInfoIdFilter moviesInfoIdFilter;
+    MoviesInfoSnapshot moviesInfoSnapshot;
+    MoviesInfoTitleIndex moviesInfoTitleIndex;
+    List<MoviesInfoWriteListener> writeListeners;
+    Validator validator;
+    int bulkChunkSize;
+    int maxPageSize;
+    int streamBatchSize;
+    int maxSuggestions;
 
-    public MoviesInfoService(MoviesInfoRepository moviesInfoRepository) {
+    public MoviesInfoService(MoviesInfoRepository moviesInfoRepository, MoviesInfoCache moviesInfoCache, MoviesInfoIdFilter moviesInfoIdFilter,
+                             MoviesInfoSnapshot moviesInfoSnapshot, MoviesInfoTitleIndex moviesInfoTitleIndex, List<MoviesInfoWriteListener> writeListeners, Validator validator,
+                             @Value("${moviesinfo.bulk.chunk-size:500}") int bulkChunkSize,
+                             @Value("${moviesinfo.page.max-limit:1000}") int maxPageSize,
+                             @Value("${moviesinfo.stream.batch-size:256}") int streamBatchSize,
+                             @Value("${moviesinfo.suggest.max-limit:50}") int maxSuggestions) {
         this.moviesInfoRepository = moviesInfoRepository;
+        this.moviesInfoCache = moviesInfoCache;
+        this.moviesInfoIdFilter = moviesInfoIdFilter;
+        this.moviesInfoSnapshot = moviesInfoSnapshot;
+        this.moviesInfoTitleIndex = moviesInfoTitleIndex;
+        this.writeListeners = writeListeners;
+        this.validator = validator;
+        this.bulkChunkSize = bulkChunkSize;
+        this.maxPageSize = maxPageSize;
+        this.streamBatchSize = streamBatchSize;
+        this.maxSuggestions = maxSuggestions;
     }
 
+    /**
+     * Inserts without a prior existence check; the unique {@code _id} rejects duplicates in the same round trip,
+     * so concurrent adds of the same movie cannot overwrite each other.
+     */
     public Mono<MoviesInfoDTO> addMovieInfo(MoviesInfoDTO moviesInfoDTO) throws MoviesInfoException {
         String movieInfoId = moviesInfoDTO.getMovieInfoIdForVerification();
-        return moviesInfoRepository.existsById(movieInfoId)
-                .map(Optional::of)
-                .flatMap(exists -> {
-                    if (exists.isPresent() && Boolean.TRUE.equals(exists.get()))
-                        throw new MoviesInfoException("MovieInfo Already Exists in Db");
-
-                    return Mono.just(moviesInfoDTO)
-                            .map(MoviesInfoDTO::toEntity)
-                            .flatMap(movieInfo -> moviesInfoRepository.save(movieInfo))
-                            .map(MoviesInfoDTO::new);
-                });
+        return Mono.just(moviesInfoDTO)
+                .map(MoviesInfoDTO::toEntity)
+                .flatMap(movieInfo -> moviesInfoRepository.insert(movieInfo))
+                .onErrorMap(DuplicateKeyException.class, e -> new MoviesInfoException("MovieInfo Already Exists in Db"))
+                .map(MoviesInfoDTO::new)
+                .doOnNext(this::notifyInserted)
+                .doOnError(e -> !(e instanceof MoviesInfoException), e -> notifyInsertFailed(movieInfoId))
+                .doOnCancel(() -> notifyInsertFailed(movieInfoId));
+    }
+
+    /**
+     * Validates and inserts a stream of movie infos chunk by chunk, emitting one result per record.
+     * Only one chunk is held in memory at a time and each chunk costs a single unordered bulk write.
+     */
+    public Flux<MoviesInfoBatchResult> addMovieInfos(Flux<MoviesInfoDTO> moviesInfoDTOs) {
+        return moviesInfoDTOs
+                .buffer(bulkChunkSize)
+                .concatMap(this::addMovieInfoChunk, 1);
+    }
+
+    private Flux<MoviesInfoBatchResult> addMovieInfoChunk(List<MoviesInfoDTO> chunk) {
+        List<MoviesInfoBatchResult> invalid = new ArrayList<>();
+        List<MoviesInfo> valid = new ArrayList<>(chunk.size());
+        for (MoviesInfoDTO moviesInfoDTO : chunk) {
+            List<String> errorMsgs = validate(moviesInfoDTO);
+            if (errorMsgs.isEmpty())
+                valid.add(moviesInfoDTO.toEntity());
+            else
+                invalid.add(MoviesInfoBatchResult.invalid(moviesInfoDTO.getMovieInfoIdForVerification(), errorMsgs));
+        }
+        if (valid.isEmpty())
+            return Flux.fromIterable(invalid);
+
+        // listeners hear of every insert as soon as Mongo acknowledged it, not as the results are consumed
+        AtomicBoolean acknowledged = new AtomicBoolean();
+        return moviesInfoRepository.insertUnordered(valid)
+                .doOnNext(duplicates -> {
+                    acknowledged.set(true);
+                    for (int i = 0; i < valid.size(); i++) {
+                        if (!duplicates.contains(i))
+                            notifyInserted(new MoviesInfoDTO(valid.get(i)));
+                    }
+                })
+                .doOnError(e -> valid.forEach(movieInfo -> notifyInsertFailed(movieInfo.getMovieInfoId())))
+                .doOnCancel(() -> {
+                    if (!acknowledged.get())
+                        valid.forEach(movieInfo -> notifyInsertFailed(movieInfo.getMovieInfoId()));
+                })
+                .flatMapMany(duplicates -> Flux.concat(
+                        Flux.fromIterable(invalid),
+                        Flux.range(0, valid.size()).map(i -> duplicates.contains(i)
+                                ? MoviesInfoBatchResult.duplicate(valid.get(i).getMovieInfoId())
+                                : MoviesInfoBatchResult.created(valid.get(i).getMovieInfoId()))));
     }
 
+    private List<String> validate(MoviesInfoDTO moviesInfoDTO) {
+        List<String> errorMsgs = new ArrayList<>();
+        for (ConstraintViolation<MoviesInfoDTO> violation : validator.validate(moviesInfoDTO))
+            errorMsgs.add(violation.getMessage());
+        if (moviesInfoDTO.getReleaseDate() != null) {
+            try {
+                LocalDate.parse(moviesInfoDTO.getReleaseDate());
+            } catch (DateTimeParseException e) {
+                errorMsgs.add("MoviesInfo.releaseDate must be an ISO-8601 date");
+            }
+        }
+        return errorMsgs;
+    }
+
+    /**
+     * Streams the whole collection. {@code limitRate} caps what is requested from the cursor at
+     * {@code streamBatchSize} ahead of the subscriber, so a slow client slows the cursor down instead of filling the heap.
+     */
     public Flux<MoviesInfoDTO> getAllMovies() {
-        return moviesInfoRepository.findAll().map(MoviesInfoDTO::new);
+        return moviesInfoRepository.streamAll(streamBatchSize)
+                .limitRate(streamBatchSize)
+                .map(MoviesInfoDTO::new);
+    }
+
+    /**
+     * {@link #getAllMovies()} projected to {@code fields}, still streamed with the same bound on cursor demand. The
+     * fields are checked before anything is read, so an invalid one fails the call rather than the stream.
+     */
+    public Flux<MoviesInfoDTO> getAllMovies(String fields) throws MoviesInfoException {
+        List<String> projection = MoviesInfoFields.parse(fields);
+        if (projection.isEmpty())
+            return getAllMovies();
+        return moviesInfoRepository.findAllAfter(null, 0, projection)
+                .limitRate(streamBatchSize)
+                .map(MoviesInfoDTO::new);
+    }
+
+    /**
+     * {@link #getAllMovies} for the raw read path: the documents are left undecoded, to be transcoded straight to JSON.
+     */
+    public Flux<RawBsonDocument> getAllMoviesRaw() {
+        return moviesInfoRepository.streamAllRaw(streamBatchSize)
+                .limitRate(streamBatchSize);
+    }
+
+    /**
+     * One page of at most {@code limit} movie infos, {@value #DEFAULT_PAGE_SIZE} without one. The whole collection is
+     * streamed by {@link #getAllMovies(String)} instead, so it is never collected.
+     */
+    public Mono<MoviesInfoPage> getMoviesPage(String cursor, Integer limit, String fields) {
+        return Mono.defer(() -> {
+            int pageSize = pageSize(cursor, limit == null ? DEFAULT_PAGE_SIZE : limit);
+            List<String> projection = MoviesInfoFields.parse(fields);
+            return toPage(moviesInfoRepository.findAllAfter(MoviesInfoCursor.decode(cursor), fetchLimit(pageSize), projection), pageSize, projection);
+        });
+    }
+
+    /**
+     * Without a {@code cursor} or {@code limit} every movie info of the year is returned as one page.
+     */
+    public Mono<MoviesInfoPage> getMovieInfosByYearPage(Integer year, String cursor, Integer limit, String fields) {
+        return Mono.defer(() -> {
+            int pageSize = pageSize(cursor, limit);
+            List<String> projection = MoviesInfoFields.parse(fields);
+            return toPage(moviesInfoRepository.findByYearAfter(year, MoviesInfoCursor.decode(cursor), fetchLimit(pageSize), projection), pageSize, projection);
+        });
+    }
+
+    /**
+     * The ETag {@link #getMovieInfosByYearPage} would return for the same arguments, read from the
+     * {@code year_id_name_version_incarnation} index only, so a conditional GET can be answered without loading the page.
+     */
+    public Mono<String> getMovieInfosByYearPageETag(Integer year, String cursor, Integer limit, String fields) {
+        return Mono.defer(() -> {
+            int pageSize = pageSize(cursor, limit);
+            List<String> projection = MoviesInfoFields.parse(fields);
+            return moviesInfoRepository.findByYearAfter(year, MoviesInfoCursor.decode(cursor), fetchLimit(pageSize), VERSION_PROJECTION)
+                    .collectList()
+                    .map(moviesInfos -> pageETag(moviesInfos, pageSize, projection));
+        });
+    }
+
+    private int pageSize(String cursor, Integer limit) {
+        if (cursor == null && limit == null)
+            return UNPAGED;
+        return Math.max(1, Math.min(limit == null ? DEFAULT_PAGE_SIZE : limit, maxPageSize));
+    }
+
+    /**
+     * One more than the page so the presence of a next page is known; a Mongo limit of 0 is no limit.
+     */
+    private static int fetchLimit(int pageSize) {
+        return pageSize == UNPAGED ? 0 : pageSize + 1;
+    }
+
+    /**
+     * Expects one element more than {@code pageSize}; its presence is what tells us a next page exists.
+     */
+    private Mono<MoviesInfoPage> toPage(Flux<MoviesInfo> moviesInfos, int pageSize, List<String> projection) {
+        return moviesInfos.collectList()
+                .map(fetched -> {
+                    String eTag = pageETag(fetched, pageSize, projection);
+                    if (fetched.size() <= pageSize)
+                        return new MoviesInfoPage(toDtos(fetched), null, eTag);
+                    List<MoviesInfoDTO> content = toDtos(fetched.subList(0, pageSize));
+                    return new MoviesInfoPage(content, MoviesInfoCursor.encode(content.get(pageSize - 1).getMovieInfoId()), eTag);
+                });
     }
 
+    private static String pageETag(List<MoviesInfo> fetched, int pageSize, List<String> projection) {
+        return MoviesInfoETag.ofPage(fetched.subList(0, Math.min(fetched.size(), pageSize)), fetched.size() > pageSize, projection);
+    }
+
+    private static List<MoviesInfoDTO> toDtos(List<MoviesInfo> moviesInfos) {
+        List<MoviesInfoDTO> moviesInfoDTOs = new ArrayList<>(moviesInfos.size());
+        for (MoviesInfo moviesInfo : moviesInfos)
+            moviesInfoDTOs.add(new MoviesInfoDTO(moviesInfo));
+        return moviesInfoDTOs;
+    }
+
+    /**
+     * Ids the {@link MoviesInfoIdFilter} rules out are answered empty without reaching the cache or Mongo.
+     */
     public Mono<MoviesInfoDTO> getMovieById(String movieId) {
-        return moviesInfoRepository.findById(movieId).map(MoviesInfoDTO::new);
+        return Mono.defer(() -> moviesInfoIdFilter.mightContain(movieId)
+                ? moviesInfoCache.get(movieId, id -> moviesInfoRepository.findById(id)
+                .map(MoviesInfoDTO::new)
+                .doOnSuccess(moviesInfoDTO -> moviesInfoIdFilter.recordLookup(moviesInfoDTO != null)))
+                : Mono.empty());
     }
 
+    /**
+     * Replaces all fields in a single find-and-modify. If the body carries a {@code version}, the update only
+     * applies to that version and fails with {@link MoviesInfoConflictException} otherwise.
+     */
     public Mono<MoviesInfoDTO> updateMovieById(String movieId, MoviesInfoDTO moviesInfoDTO) {
-        return moviesInfoRepository.findById(movieId)
-                .flatMap(existingMovie -> {
-                    existingMovie.setName(moviesInfoDTO.getName());
-                    existingMovie.setYear(moviesInfoDTO.getYear());
-                    existingMovie.setCast(moviesInfoDTO.getCast());
-                    existingMovie.setReleaseDate(LocalDate.parse(moviesInfoDTO.getReleaseDate()));
-                    return moviesInfoRepository.save(existingMovie);
-                }).map(MoviesInfoDTO::new);
+        return Mono.fromCallable(() -> {
+                    List<String> errorMsgs = validate(moviesInfoDTO);
+                    if (!errorMsgs.isEmpty())
+                        throw new MoviesInfoException(String.join(",", errorMsgs));
+                    return new Update()
+                            .set("name", moviesInfoDTO.getName())
+                            .set("year", moviesInfoDTO.getYear())
+                            .set("cast", moviesInfoDTO.getCast())
+                            .set("releaseDate", parseReleaseDate(moviesInfoDTO.getReleaseDate()));
+                })
+                .flatMap(update -> updateVersioned(movieId, moviesInfoDTO.getVersion(), update));
     }
 
+    /**
+     * Sets only the non-null fields of {@code patch} in a single find-and-modify, with the same version check as
+     * {@link #updateMovieById}.
+     */
+    public Mono<MoviesInfoDTO> patchMovieById(String movieId, MoviesInfoDTO patch) {
+        return Mono.fromCallable(() -> {
+                    Update update = new Update();
+                    if (patch.getName() != null) {
+                        if (patch.getName().isBlank())
+                            throw new MoviesInfoException("MoviesInfo.name cannot be null/empty");
+                        update.set("name", patch.getName());
+                    }
+                    if (patch.getYear() != null) {
+                        if (patch.getYear() <= 0)
+                            throw new MoviesInfoException("MoviesInfo.year must be positive");
+                        update.set("year", patch.getYear());
+                    }
+                    if (patch.getCast() != null) {
+                        if (patch.getCast().stream().anyMatch(member -> member == null || member.isBlank()))
+                            throw new MoviesInfoException("MoviesInfo.cast cannot be null/empty");
+                        update.set("cast", patch.getCast());
+                    }
+                    if (patch.getReleaseDate() != null)
+                        update.set("releaseDate", parseReleaseDate(patch.getReleaseDate()));
+                    if (update.getUpdateObject().isEmpty())
+                        throw new MoviesInfoException("Nothing to update");
+                    return update;
+                })
+                .flatMap(update -> updateVersioned(movieId, patch.getVersion(), update));
+    }
+
+    /**
+     * Only a miss costs a second round trip, to tell a version conflict from a missing movie info. A cancelled
+     * update may still have been applied, so listeners are told its outcome is unknown.
+     */
+    private Mono<MoviesInfoDTO> updateVersioned(String movieId, Long expectedVersion, Update update) {
+        return moviesInfoRepository.updateVersioned(movieId, expectedVersion, update)
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.empty()
+                        : moviesInfoRepository.existsById(movieId)
+                        .flatMap(exists -> exists
+                                ? Mono.error(new MoviesInfoConflictException("MovieInfo " + movieId + " is no longer at version " + expectedVersion))
+                                : Mono.empty())))
+                .map(MoviesInfoDTO::new)
+                .doOnNext(this::notifySaved)
+                .doOnError(e -> !(e instanceof MoviesInfoException), e -> notifyWriteFailed(movieId))
+                .doOnCancel(() -> notifyWriteFailed(movieId));
+    }
+
+    private static LocalDate parseReleaseDate(String releaseDate) {
+        try {
+            return LocalDate.parse(releaseDate);
+        } catch (DateTimeParseException e) {
+            throw new MoviesInfoException("MoviesInfo.releaseDate must be an ISO-8601 date");
+        }
+    }
+
+    /**
+     * Listeners are told only when a movie info was actually deleted, which the id filter relies on to never remove
+     * an id it did not add. A failed or cancelled delete may still have been applied, so its outcome is reported as
+     * unknown.
+     */
     public Mono<Void> deleteMovieById(String movieId) {
-        return moviesInfoRepository.deleteById(movieId);
+        return Mono.defer(() -> {
+            long removalStamp = moviesInfoIdFilter.removalStamp();
+            return moviesInfoRepository.deleteByIdCounted(movieId)
+                    .doOnNext(deleted -> {
+                        if (deleted > 0) {
+                            moviesInfoIdFilter.remove(movieId, removalStamp);
+                            writeListeners.forEach(listener -> listener.onDeleted(movieId));
+                        }
+                    })
+                    .doOnError(e -> notifyWriteFailed(movieId))
+                    .doOnCancel(() -> notifyWriteFailed(movieId))
+                    .then();
+        });
     }
 
     public Mono<Void> deleteAllMovies() {
-        return moviesInfoRepository.deleteAll();
+        return moviesInfoRepository.deleteAll()
+                .doOnSuccess(ignored -> writeListeners.forEach(MoviesInfoWriteListener::onDeletedAll))
+                .doOnError(e -> notifyWriteFailed(null))
+                .doOnCancel(() -> notifyWriteFailed(null));
+    }
+
+    private void notifySaved(MoviesInfoDTO moviesInfoDTO) {
+        writeListeners.forEach(listener -> listener.onSaved(moviesInfoDTO));
+    }
+
+    private void notifyInserted(MoviesInfoDTO moviesInfoDTO) {
+        writeListeners.forEach(listener -> listener.onInserted(moviesInfoDTO));
+    }
+
+    private void notifyInsertFailed(String movieId) {
+        writeListeners.forEach(listener -> listener.onInsertFailed(movieId));
     }
 
+    private void notifyWriteFailed(String movieId) {
+        writeListeners.forEach(listener -> listener.onWriteFailed(movieId));
+    }
+
+    /**
+     * Served from the {@link MoviesInfoSnapshot} once it is loaded, from Mongo before that or when it is disabled.
+     */
     public Flux<MoviesInfoDTO> getMovieInfosByYear(Integer year) {
-        return moviesInfoRepository.findByYear(year).map(MoviesInfoDTO::new);
+        return Flux.defer(() -> moviesInfoSnapshot.isReady()
+                ? Flux.fromIterable(moviesInfoSnapshot.findByYear(year))
+                : moviesInfoRepository.streamByYear(year, streamBatchSize)
+                .limitRate(streamBatchSize)
+                .map(MoviesInfoDTO::new));
+    }
+
+    /**
+     * Movie infos released from {@code fromYear} to {@code toYear} inclusive, ordered by year and id.
+     */
+    public Flux<MoviesInfoDTO> getMovieInfosByYearRange(Integer fromYear, Integer toYear) {
+        return Flux.defer(() -> moviesInfoSnapshot.isReady()
+                ? Flux.fromIterable(moviesInfoSnapshot.findByYearRange(fromYear, toYear))
+                : moviesInfoRepository.streamByYearRange(fromYear, toYear, streamBatchSize)
+                .limitRate(streamBatchSize)
+                .map(MoviesInfoDTO::new));
+    }
+
+    /**
+     * Movie infos whose cast includes {@code castMember}, ordered by year and id.
+     */
+    public Flux<MoviesInfoDTO> getMovieInfosByCastMember(String castMember) {
+        return Flux.defer(() -> moviesInfoSnapshot.isReady()
+                ? Flux.fromIterable(moviesInfoSnapshot.findByCastMember(castMember))
+                : moviesInfoRepository.streamByCastMember(castMember, streamBatchSize)
+                .limitRate(streamBatchSize)
+                .map(MoviesInfoDTO::new));
+    }
+
+    /**
+     * Titles with a word starting with {@code query}, newest first. Served from the {@link MoviesInfoTitleIndex} once
+     * it is loaded; before that a regex scan on Mongo answers, without the index's accent folding.
+     */
+    public Mono<List<MoviesInfoSuggestion>> suggest(String query, int limit) {
+        return Mono.defer(() -> {
+            if (query == null || MoviesInfoTitleIndex.normalize(query).isEmpty())
+                return Mono.error(new MoviesInfoException("Query must contain a letter or digit"));
+            int suggestions = Math.max(1, Math.min(limit, maxSuggestions));
+            return moviesInfoTitleIndex.isReady()
+                    ? Mono.just(moviesInfoTitleIndex.suggest(query, suggestions))
+                    : moviesInfoRepository.findByNameWordPrefix(query.trim(), suggestions)
+                    .map(moviesInfo -> new MoviesInfoSuggestion(moviesInfo.getMovieInfoId(), moviesInfo.getName(), moviesInfo.getYear()))
+                    .collectList();
+        });
+    }
+
+    /**
+     * {@link #getMovieInfosByYear} for the raw read path: the documents are left undecoded, to be transcoded straight to JSON.
+     */
+    public Flux<RawBsonDocument> getMovieInfosByYearRaw(Integer year) {
+        return moviesInfoRepository.streamByYearRaw(year, streamBatchSize)
+                .limitRate(streamBatchSize);
     }
 }
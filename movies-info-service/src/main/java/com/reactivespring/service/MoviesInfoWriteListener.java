@@ -0,0 +1,44 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MoviesInfoDTO;
+
+/**
+ * Told about every write {@link MoviesInfoService} makes, after the database has answered. Implementations are
+ * called on the thread that completed the write and must not block.
+ */
+public interface MoviesInfoWriteListener {
+
+    /**
+     * A movie info was inserted or updated; {@code moviesInfoDTO} is the state now stored.
+     */
+    void onSaved(MoviesInfoDTO moviesInfoDTO);
+
+    /**
+     * A movie info was inserted, so its id did not exist before. Only listeners that track which ids exist need to
+     * tell this from an update; by default it is an {@link #onSaved}.
+     */
+    default void onInserted(MoviesInfoDTO moviesInfoDTO) {
+        onSaved(moviesInfoDTO);
+    }
+
+    /**
+     * A movie info was deleted; not called for a delete that found nothing.
+     */
+    void onDeleted(String movieInfoId);
+
+    void onDeletedAll();
+
+    /**
+     * A write failed in a way that does not tell whether it reached the database, so the stored state of
+     * {@code movieInfoId} is unknown. A {@code null} id means any movie info may be affected.
+     */
+    void onWriteFailed(String movieInfoId);
+
+    /**
+     * An insert failed or was cancelled in a way that does not tell whether it reached the database, so
+     * {@code movieInfoId} may now exist; by default it is an {@link #onWriteFailed}.
+     */
+    default void onInsertFailed(String movieInfoId) {
+        onWriteFailed(movieInfoId);
+    }
+}
@@ -0,0 +1,262 @@
+package com.reactivespring.snapshot;
+
+import com.reactivespring.domain.MoviesInfoDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable column store of movie infos, one array per property, rows sorted by {@code year, movieInfoId}.
+ * <ul>
+ *     <li>a year is a range of rows, found by binary search over the distinct years in {@code yearKeys}</li>
+ *     <li>cast members are dictionary encoded: each distinct name is stored once in the sorted {@code castDictionary},
+ *     rows refer to it by index, and {@code postings} lists the rows of every name in row order</li>
+ *     <li>release dates are epoch days and versions primitives, with sentinels for missing values</li>
+ * </ul>
+ */
+final class MoviesInfoColumns implements MoviesInfoOverlay.Base<MoviesInfoDTO> {
+
+    static final Comparator<MoviesInfoDTO> ROW_ORDER = Comparator
+            .comparing(MoviesInfoDTO::getYear, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(MoviesInfoDTO::getMovieInfoId);
+
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+    private static final int NO_RELEASE_DATE = Integer.MIN_VALUE;
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    // compressed oops: 12 byte header + 4 byte length for arrays, 4 bytes per reference
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    // String object plus the header of its byte[]; Latin-1 content adds a byte per character
+    private static final int STRING_OVERHEAD_BYTES = 24 + ARRAY_HEADER_BYTES;
+
+    static final MoviesInfoColumns EMPTY = of(List.of());
+
+    final String[] ids;
+    final String[] names;
+    final int[] years;
+    final int[] releaseDays;
+    final long[] versions;
+    final BitSet nullCast;
+    final int[] castStarts;
+    final int[] castRefs;
+    final String[] castDictionary;
+    final int[] postingStarts;
+    final int[] postings;
+    final int[] yearKeys;
+    final int[] yearStarts;
+    final long estimatedBytes;
+
+    private MoviesInfoColumns(String[] ids, String[] names, int[] years, int[] releaseDays, long[] versions, BitSet nullCast,
+                              int[] castStarts, int[] castRefs, String[] castDictionary, int[] postingStarts, int[] postings,
+                              int[] yearKeys, int[] yearStarts, long stringBytes) {
+        this.ids = ids;
+        this.names = names;
+        this.years = years;
+        this.releaseDays = releaseDays;
+        this.versions = versions;
+        this.nullCast = nullCast;
+        this.castStarts = castStarts;
+        this.castRefs = castRefs;
+        this.castDictionary = castDictionary;
+        this.postingStarts = postingStarts;
+        this.postings = postings;
+        this.yearKeys = yearKeys;
+        this.yearStarts = yearStarts;
+        this.estimatedBytes = stringBytes
+                + arrayBytes(ids.length, REFERENCE_BYTES) * 3
+                + arrayBytes(years.length, Integer.BYTES) * 2
+                + arrayBytes(versions.length, Long.BYTES)
+                + nullCast.size() / Byte.SIZE
+                + arrayBytes(castStarts.length + castRefs.length + postingStarts.length + postings.length, Integer.BYTES)
+                + arrayBytes(yearKeys.length + yearStarts.length, Integer.BYTES);
+    }
+
+    static MoviesInfoColumns of(List<MoviesInfoDTO> moviesInfoDTOs) {
+        List<MoviesInfoDTO> rows = new ArrayList<>(moviesInfoDTOs);
+        rows.sort(ROW_ORDER);
+        int size = rows.size();
+
+        String[] ids = new String[size];
+        String[] names = new String[size];
+        int[] years = new int[size];
+        int[] releaseDays = new int[size];
+        long[] versions = new long[size];
+        BitSet nullCast = new BitSet(size);
+        int[] castStarts = new int[size + 1];
+        Map<String, Integer> provisionalRefs = new HashMap<>();
+        List<String> provisionalDictionary = new ArrayList<>();
+        int[] castRefs = new int[0];
+        int castCount = 0;
+        long stringBytes = 0;
+
+        for (int row = 0; row < size; row++) {
+            MoviesInfoDTO moviesInfoDTO = rows.get(row);
+            ids[row] = moviesInfoDTO.getMovieInfoId();
+            names[row] = moviesInfoDTO.getName();
+            years[row] = moviesInfoDTO.getYear() == null ? NO_YEAR : moviesInfoDTO.getYear();
+            releaseDays[row] = moviesInfoDTO.getReleaseDate() == null
+                    ? NO_RELEASE_DATE
+                    : (int) LocalDate.parse(moviesInfoDTO.getReleaseDate()).toEpochDay();
+            versions[row] = moviesInfoDTO.getVersion() == null ? NO_VERSION : moviesInfoDTO.getVersion();
+            stringBytes += stringBytes(ids[row]) + stringBytes(names[row]);
+
+            castStarts[row] = castCount;
+            List<String> cast = moviesInfoDTO.getCast();
+            if (cast == null) {
+                nullCast.set(row);
+                continue;
+            }
+            if (castRefs.length < castCount + cast.size())
+                castRefs = Arrays.copyOf(castRefs, Math.max(castRefs.length * 2, castCount + cast.size()));
+            for (String member : cast) {
+                Integer ref = provisionalRefs.get(member);
+                if (ref == null) {
+                    ref = provisionalDictionary.size();
+                    provisionalRefs.put(member, ref);
+                    provisionalDictionary.add(member);
+                    stringBytes += stringBytes(member);
+                }
+                castRefs[castCount++] = ref;
+            }
+        }
+        castStarts[size] = castCount;
+        castRefs = Arrays.copyOf(castRefs, castCount);
+
+        // sort the dictionary so a cast member is found by binary search, and renumber the rows' references
+        String[] castDictionary = provisionalDictionary.toArray(String[]::new);
+        Arrays.sort(castDictionary, Comparator.nullsFirst(Comparator.naturalOrder()));
+        int[] renumbered = new int[castDictionary.length];
+        for (int ref = 0; ref < castDictionary.length; ref++)
+            renumbered[provisionalRefs.get(castDictionary[ref])] = ref;
+        int[] postingStarts = new int[castDictionary.length + 1];
+        for (int i = 0; i < castCount; i++) {
+            castRefs[i] = renumbered[castRefs[i]];
+            postingStarts[castRefs[i] + 1]++;
+        }
+        for (int ref = 0; ref < castDictionary.length; ref++)
+            postingStarts[ref + 1] += postingStarts[ref];
+
+        // rows are visited in order, so every postings list comes out sorted
+        int[] postings = new int[castCount];
+        int[] next = Arrays.copyOf(postingStarts, castDictionary.length);
+        for (int row = 0; row < size; row++) {
+            for (int i = castStarts[row]; i < castStarts[row + 1]; i++) {
+                int ref = castRefs[i];
+                // the same member twice in one cast is listed once
+                if (next[ref] == postingStarts[ref] || postings[next[ref] - 1] != row)
+                    postings[next[ref]++] = row;
+            }
+        }
+
+        int[] yearKeys = new int[size];
+        int[] yearStarts = new int[size + 1];
+        int distinctYears = 0;
+        for (int row = 0; row < size; row++) {
+            if (row == 0 || years[row] != years[row - 1]) {
+                yearKeys[distinctYears] = years[row];
+                yearStarts[distinctYears++] = row;
+            }
+        }
+        yearStarts[distinctYears] = size;
+
+        postings = compactPostings(postings, postingStarts, next);
+        return new MoviesInfoColumns(ids, names, years, releaseDays, versions, nullCast, castStarts, castRefs,
+                castDictionary, postingStarts, postings,
+                Arrays.copyOf(yearKeys, distinctYears), Arrays.copyOf(yearStarts, distinctYears + 1), stringBytes);
+    }
+
+    /**
+     * Drops the slots left unused by duplicate cast members, shifting {@code postingStarts} to match.
+     */
+    private static int[] compactPostings(int[] postings, int[] postingStarts, int[] ends) {
+        int written = 0;
+        for (int ref = 0; ref < ends.length; ref++) {
+            int start = postingStarts[ref];
+            postingStarts[ref] = written;
+            for (int i = start; i < ends[ref]; i++)
+                postings[written++] = postings[i];
+        }
+        postingStarts[ends.length] = written;
+        return written == postings.length ? postings : Arrays.copyOf(postings, written);
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public String id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Visits the rows with {@code fromYear <= year <= toYear} in row order until {@code visitor} returns false.
+     */
+    void forEachInYears(int fromYear, int toYear, IntPredicate visitor) {
+        int key = lowerBound(yearKeys, fromYear);
+        for (; key < yearKeys.length && yearKeys[key] <= toYear; key++) {
+            for (int row = yearStarts[key]; row < yearStarts[key + 1]; row++) {
+                if (!visitor.test(row))
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Visits the rows whose cast includes {@code member} in row order until {@code visitor} returns false.
+     */
+    void forEachWithCastMember(String member, IntPredicate visitor) {
+        int ref = Arrays.binarySearch(castDictionary, member, Comparator.nullsFirst(Comparator.naturalOrder()));
+        if (ref < 0)
+            return;
+        for (int i = postingStarts[ref]; i < postingStarts[ref + 1]; i++) {
+            if (!visitor.test(postings[i]))
+                return;
+        }
+    }
+
+    @Override
+    public MoviesInfoDTO row(int row) {
+        List<String> cast = null;
+        if (!nullCast.get(row)) {
+            String[] members = new String[castStarts[row + 1] - castStarts[row]];
+            for (int i = 0; i < members.length; i++)
+                members[i] = castDictionary[castRefs[castStarts[row] + i]];
+            cast = Arrays.asList(members);
+        }
+        return new MoviesInfoDTO(ids[row], names[row],
+                years[row] == NO_YEAR ? null : years[row],
+                cast,
+                releaseDays[row] == NO_RELEASE_DATE ? null : LocalDate.ofEpochDay(releaseDays[row]).toString(),
+                versions[row] == NO_VERSION ? null : versions[row]);
+    }
+
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return ARRAY_HEADER_BYTES + (long) length * elementBytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+}
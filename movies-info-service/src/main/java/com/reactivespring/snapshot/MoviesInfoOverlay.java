@@ -0,0 +1,198 @@
+package com.reactivespring.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The log-structured part of the in-memory read models: an immutable base built from the whole collection, shadowed
+ * by a small overlay of the writes made since. Once the overlay reaches {@code mergeThreshold} entries it is merged
+ * into a new base on a single maintenance thread, off the request threads.
+ * <p>
+ * Reads take one {@link State} and work on it alone. Writes copy the overlay, so a state once read never changes;
+ * copying is bounded by {@code mergeThreshold} and writes are rare next to reads.
+ *
+ * @param <B> the base, rebuilt whole on every merge
+ * @param <V> the overlay value, the stored state of one movie info
+ */
+@Slf4j
+public class MoviesInfoOverlay<B extends MoviesInfoOverlay.Base<V>, V> {
+
+    /**
+     * What the overlay needs to know of a base to merge into it.
+     */
+    public interface Base<V> {
+
+        int size();
+
+        String id(int row);
+
+        V row(int row);
+    }
+
+    /**
+     * Reads check {@code active}, then {@code frozen}, then {@code base}. {@code frozen} is the overlay being merged.
+     * A {@code null} value is a tombstone for a deletion.
+     */
+    public record State<B, V>(B base, Map<String, V> frozen, Map<String, V> active) {
+
+        /**
+         * True if the overlay holds {@code movieInfoId}, so the row of the base is stale.
+         */
+        public boolean shadows(String movieInfoId) {
+            return active.containsKey(movieInfoId) || frozen.containsKey(movieInfoId);
+        }
+
+        /**
+         * Visits the current value of every movie info in the overlay, skipping tombstones.
+         */
+        public void forEachOverlaid(Consumer<V> visitor) {
+            active.values().forEach(value -> {
+                if (value != null)
+                    visitor.accept(value);
+            });
+            frozen.forEach((id, value) -> {
+                if (value != null && !active.containsKey(id))
+                    visitor.accept(value);
+            });
+        }
+
+        public int overlaySize() {
+            return active.size() + frozen.size();
+        }
+    }
+
+    final String name;
+    final Function<List<V>, B> build;
+    final Function<V, Long> version;
+    final int mergeThreshold;
+    // writes and state swaps are serialized on this; reads only follow the volatile state
+    final Object writeLock = new Object();
+    final B empty;
+    volatile State<B, V> state;
+    final AtomicBoolean merging = new AtomicBoolean();
+    final Scheduler maintenance;
+
+    /**
+     * @param name    what the base is called in the logs, also names the maintenance thread
+     * @param build   builds a base from values in any order
+     * @param version the version of a value, {@code null} if unknown
+     */
+    public MoviesInfoOverlay(String name, Function<List<V>, B> build, Function<V, Long> version, int mergeThreshold) {
+        this.name = name;
+        this.build = build;
+        this.version = version;
+        this.mergeThreshold = mergeThreshold;
+        this.empty = build.apply(List.of());
+        this.state = new State<>(empty, Map.of(), new HashMap<>());
+        this.maintenance = Schedulers.newSingle(name.replace(' ', '-'), true);
+    }
+
+    public State<B, V> state() {
+        return state;
+    }
+
+    /**
+     * Where bases are built; a load publishes on it before building one.
+     */
+    public Scheduler maintenance() {
+        return maintenance;
+    }
+
+    /**
+     * Swaps in a base freshly built from the whole collection. Overlay entries written meanwhile are kept, as they are
+     * at least as new as what was read.
+     */
+    public void replaceBase(B base) {
+        synchronized (writeLock) {
+            state = new State<>(base, state.frozen(), state.active());
+        }
+    }
+
+    /**
+     * Drops the base and the overlay.
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            state = new State<>(empty, Map.of(), new HashMap<>());
+        }
+    }
+
+    /**
+     * Shadows the base row of {@code movieInfoId} with {@code value}, or with a tombstone if it is {@code null}. A value
+     * older than the one already in the overlay is dropped, so writes completing out of order cannot go back in time.
+     */
+    public void put(String movieInfoId, V value) {
+        int overlaySize;
+        synchronized (writeLock) {
+            V previous = state.active().get(movieInfoId);
+            if (previous != null && isNewer(previous, value))
+                return;
+            Map<String, V> active = new HashMap<>(state.active());
+            active.put(movieInfoId, value);
+            state = new State<>(state.base(), state.frozen(), active);
+            overlaySize = state.overlaySize();
+        }
+        if (overlaySize >= mergeThreshold && merging.compareAndSet(false, true))
+            merge().subscribe(null, e -> log.warn("Merging the {} overlay failed", name, e));
+    }
+
+    private boolean isNewer(V previous, V value) {
+        if (value == null)
+            return false;
+        Long previousVersion = version.apply(previous);
+        Long newVersion = version.apply(value);
+        return previousVersion != null && newVersion != null && previousVersion > newVersion;
+    }
+
+    /**
+     * Freezes the overlay, merges it into a new base, then drops it.
+     */
+    public Mono<Void> merge() {
+        return Mono.fromRunnable(() -> {
+                    State<B, V> frozenState;
+                    synchronized (writeLock) {
+                        frozenState = new State<>(state.base(), state.active(), new HashMap<>());
+                        state = frozenState;
+                    }
+                    B base = frozenState.base();
+                    List<V> rows = new ArrayList<>(base.size() + frozenState.frozen().size());
+                    for (int row = 0; row < base.size(); row++) {
+                        if (!frozenState.frozen().containsKey(base.id(row)))
+                            rows.add(base.row(row));
+                    }
+                    frozenState.forEachOverlaid(rows::add);
+                    B merged = build.apply(rows);
+                    synchronized (writeLock) {
+                        if (state.base() == base) {
+                            state = new State<>(merged, Map.of(), state.active());
+                        } else if (!state.frozen().isEmpty()) {
+                            // a load replaced the base meanwhile, so the merge is stale; keep the frozen writes in the overlay
+                            Map<String, V> active = new HashMap<>(state.frozen());
+                            active.putAll(state.active());
+                            state = new State<>(state.base(), Map.of(), active);
+                        }
+                    }
+                })
+                .subscribeOn(maintenance)
+                .doFinally(signal -> merging.set(false))
+                .then();
+    }
+
+    public int overlaySize() {
+        return state.overlaySize();
+    }
+
+    public void close() {
+        maintenance.dispose();
+    }
+}
@@ -0,0 +1,198 @@
+package com.reactivespring.snapshot;
+
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.service.MoviesInfoWriteListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Optional in-memory copy of the movie info collection that answers year, year range and cast member queries
+ * without a round trip to Mongo. It is loaded once at startup into a {@link MoviesInfoColumns} base and kept fresh
+ * by a {@link MoviesInfoOverlay}: writes made through {@code MoviesInfoService} shadow the base, and once they reach
+ * {@code compact-threshold} entries they are merged into a new base in the background.
+ * <p>
+ * Only this instance's writes are seen. With several instances writing to the same collection, each snapshot lags
+ * the others' writes until it is reloaded, so only enable it where that is acceptable.
+ */
+@Component
+@Slf4j
+public class MoviesInfoSnapshot implements MoviesInfoWriteListener, MeterBinder {
+
+    private static final long MILLION = 1_000_000;
+
+    MoviesInfoRepository moviesInfoRepository;
+    boolean enabled;
+    int loadBatchSize;
+    final MoviesInfoOverlay<MoviesInfoColumns, MoviesInfoDTO> overlay;
+    volatile boolean ready;
+
+    public MoviesInfoSnapshot(MoviesInfoRepository moviesInfoRepository,
+                              @Value("${moviesinfo.snapshot.enabled:false}") boolean enabled,
+                              @Value("${moviesinfo.stream.batch-size:256}") int loadBatchSize,
+                              @Value("${moviesinfo.snapshot.compact-threshold:4096}") int compactThreshold) {
+        this.moviesInfoRepository = moviesInfoRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.overlay = new MoviesInfoOverlay<>("movies info snapshot", MoviesInfoColumns::of, MoviesInfoDTO::getVersion, compactThreshold);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            load().subscribe(null, e -> log.warn("Loading the movie info snapshot failed, queries stay on Mongo", e));
+    }
+
+    /**
+     * Builds a new base from the whole collection. Overlay entries written meanwhile are kept.
+     */
+    public Mono<Void> load() {
+        return moviesInfoRepository.streamAll(loadBatchSize)
+                .map(MoviesInfoDTO::new)
+                .collectList()
+                .publishOn(overlay.maintenance())
+                .map(MoviesInfoColumns::of)
+                .doOnNext(base -> {
+                    overlay.replaceBase(base);
+                    ready = true;
+                    log.info("Loaded movie info snapshot of {} titles, about {} bytes on the heap ({} bytes per million titles)",
+                            base.size(), base.estimatedBytes, bytesPerMillionTitles(base));
+                })
+                .then();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public List<MoviesInfoDTO> findByYear(int year) {
+        return findByYearRange(year, year);
+    }
+
+    /**
+     * Movie infos with {@code fromYear <= year <= toYear}, ordered by year and id.
+     */
+    public List<MoviesInfoDTO> findByYearRange(int fromYear, int toYear) {
+        MoviesInfoOverlay.State<MoviesInfoColumns, MoviesInfoDTO> current = overlay.state();
+        List<MoviesInfoDTO> result = new ArrayList<>();
+        current.base().forEachInYears(fromYear, toYear, row -> addUnlessShadowed(current, row, result));
+        return mergeOverlay(current, result, moviesInfoDTO -> moviesInfoDTO.getYear() != null
+                && moviesInfoDTO.getYear() >= fromYear && moviesInfoDTO.getYear() <= toYear);
+    }
+
+    /**
+     * Movie infos whose cast includes exactly {@code member}, ordered by year and id.
+     */
+    public List<MoviesInfoDTO> findByCastMember(String member) {
+        MoviesInfoOverlay.State<MoviesInfoColumns, MoviesInfoDTO> current = overlay.state();
+        List<MoviesInfoDTO> result = new ArrayList<>();
+        current.base().forEachWithCastMember(member, row -> addUnlessShadowed(current, row, result));
+        return mergeOverlay(current, result, moviesInfoDTO -> moviesInfoDTO.getCast() != null
+                && moviesInfoDTO.getCast().contains(member));
+    }
+
+    private static boolean addUnlessShadowed(MoviesInfoOverlay.State<MoviesInfoColumns, MoviesInfoDTO> current, int row,
+                                             List<MoviesInfoDTO> result) {
+        if (!current.shadows(current.base().ids[row]))
+            result.add(current.base().row(row));
+        return true;
+    }
+
+    private static List<MoviesInfoDTO> mergeOverlay(MoviesInfoOverlay.State<MoviesInfoColumns, MoviesInfoDTO> current,
+                                                    List<MoviesInfoDTO> result, Predicate<MoviesInfoDTO> matches) {
+        int fromBase = result.size();
+        current.forEachOverlaid(moviesInfoDTO -> {
+            if (matches.test(moviesInfoDTO))
+                result.add(moviesInfoDTO);
+        });
+        if (result.size() > fromBase)
+            result.sort(MoviesInfoColumns.ROW_ORDER);
+        return result;
+    }
+
+    @Override
+    public void onSaved(MoviesInfoDTO moviesInfoDTO) {
+        if (enabled)
+            overlay.put(moviesInfoDTO.getMovieInfoId(), moviesInfoDTO);
+    }
+
+    @Override
+    public void onDeleted(String movieInfoId) {
+        if (enabled)
+            overlay.put(movieInfoId, null);
+    }
+
+    @Override
+    public void onDeletedAll() {
+        overlay.clear();
+    }
+
+    @Override
+    public void onWriteFailed(String movieInfoId) {
+        if (!enabled)
+            return;
+        if (movieInfoId == null) {
+            load().subscribe(null, e -> log.warn("Reloading the movie info snapshot failed", e));
+            return;
+        }
+        moviesInfoRepository.findById(movieInfoId)
+                .map(MoviesInfoDTO::new)
+                .doOnNext(this::onSaved)
+                .switchIfEmpty(Mono.fromRunnable(() -> onDeleted(movieInfoId)))
+                .subscribe(null, e -> log.warn("Refreshing {} in the movie info snapshot failed", movieInfoId, e));
+    }
+
+    /**
+     * Merges the overlay into a new base.
+     */
+    Mono<Void> compact() {
+        return overlay.merge();
+    }
+
+    @PreDestroy
+    public void close() {
+        overlay.close();
+    }
+
+    long estimatedBytes() {
+        return overlay.state().base().estimatedBytes;
+    }
+
+    int overlaySize() {
+        return overlay.overlaySize();
+    }
+
+    private static long bytesPerMillionTitles(MoviesInfoColumns base) {
+        return base.size() == 0 ? 0 : base.estimatedBytes * MILLION / base.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("moviesinfo.snapshot.titles", this, snapshot -> snapshot.overlay.state().base().size())
+                .description("Movie infos in the snapshot base, not counting the overlay")
+                .register(registry);
+        Gauge.builder("moviesinfo.snapshot.bytes", this, MoviesInfoSnapshot::estimatedBytes)
+                .description("Estimated heap footprint of the snapshot base")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("moviesinfo.snapshot.bytes.per.million.titles", this, snapshot -> bytesPerMillionTitles(snapshot.overlay.state().base()))
+                .description("Estimated heap footprint of the snapshot base scaled to one million titles")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("moviesinfo.snapshot.overlay.size", this, MoviesInfoSnapshot::overlaySize)
+                .description("Writes not yet merged into the snapshot base")
+                .register(registry);
+    }
+}
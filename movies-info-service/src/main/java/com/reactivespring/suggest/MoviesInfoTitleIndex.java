@@ -0,0 +1,192 @@
+package com.reactivespring.suggest;
+
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.service.MoviesInfoWriteListener;
+import com.reactivespring.snapshot.MoviesInfoOverlay;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory title autocomplete. Titles are normalized (accents stripped, lower cased, punctuation folded to single
+ * spaces) and a query matches every title with a word starting with it, so {@code "dark kn"} finds
+ * {@code "The Dark Knight"}. Matches are ranked newest first.
+ * <p>
+ * Kept fresh like {@code MoviesInfoSnapshot}, by a {@link MoviesInfoOverlay} of writes that shadows the immutable
+ * {@link MoviesInfoTitles}, which is rebuilt in the background once the overlay reaches {@code rebuild-threshold}
+ * entries. Only this instance's writes are seen between full loads.
+ */
+@Component
+@Slf4j
+public class MoviesInfoTitleIndex implements MoviesInfoWriteListener, MeterBinder {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    MoviesInfoRepository moviesInfoRepository;
+    boolean enabled;
+    int loadBatchSize;
+    final MoviesInfoOverlay<MoviesInfoTitles, MoviesInfoTitles.Entry> overlay;
+    volatile boolean ready;
+
+    public MoviesInfoTitleIndex(MoviesInfoRepository moviesInfoRepository,
+                                @Value("${moviesinfo.suggest.enabled:false}") boolean enabled,
+                                @Value("${moviesinfo.stream.batch-size:256}") int loadBatchSize,
+                                @Value("${moviesinfo.suggest.rebuild-threshold:1024}") int rebuildThreshold) {
+        this.moviesInfoRepository = moviesInfoRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.overlay = new MoviesInfoOverlay<>("movies info title index", MoviesInfoTitles::of, MoviesInfoTitles.Entry::version, rebuildThreshold);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            load().subscribe(null, e -> log.warn("Loading the title index failed, suggestions stay on Mongo", e));
+    }
+
+    /**
+     * Builds a new base from the whole collection, keeping overlay entries written meanwhile.
+     */
+    public Mono<Void> load() {
+        return Flux.defer(() -> moviesInfoRepository.streamAll(loadBatchSize))
+                .map(moviesInfo -> entry(new MoviesInfoDTO(moviesInfo)))
+                .collectList()
+                .publishOn(overlay.maintenance())
+                .map(MoviesInfoTitles::of)
+                .doOnNext(base -> {
+                    overlay.replaceBase(base);
+                    ready = true;
+                    log.info("Loaded title index of {} titles, about {} bytes on the heap", base.size(), base.estimatedBytes);
+                })
+                .then();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Lower cased with accents stripped and every run of characters other than letters and digits replaced by one
+     * space.
+     */
+    public static String normalize(String title) {
+        String decomposed = MARKS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Up to {@code limit} titles with a word starting with {@code query}, newest first.
+     */
+    public List<MoviesInfoSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        MoviesInfoOverlay.State<MoviesInfoTitles, MoviesInfoTitles.Entry> current = overlay.state();
+        List<MoviesInfoTitles.Entry> matches = new ArrayList<>(limit);
+        current.base().forEachTopMatch(prefix, limit, row -> {
+            if (current.shadows(current.base().ids[row]))
+                return false;
+            matches.add(current.base().row(row));
+            return true;
+        });
+        int fromBase = matches.size();
+        current.forEachOverlaid(entry -> {
+            if (MoviesInfoTitles.matches(entry.key(), prefix))
+                matches.add(entry);
+        });
+        if (matches.size() > fromBase)
+            matches.sort(MoviesInfoTitles.RANK);
+        List<MoviesInfoSuggestion> suggestions = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++)
+            suggestions.add(matches.get(i).suggestion());
+        return suggestions;
+    }
+
+    private static MoviesInfoTitles.Entry entry(MoviesInfoDTO moviesInfoDTO) {
+        String name = moviesInfoDTO.getName() == null ? "" : moviesInfoDTO.getName();
+        return new MoviesInfoTitles.Entry(normalize(name),
+                new MoviesInfoSuggestion(moviesInfoDTO.getMovieInfoId(), moviesInfoDTO.getName(), moviesInfoDTO.getYear()),
+                moviesInfoDTO.getVersion());
+    }
+
+    @Override
+    public void onSaved(MoviesInfoDTO moviesInfoDTO) {
+        if (enabled)
+            overlay.put(moviesInfoDTO.getMovieInfoId(), entry(moviesInfoDTO));
+    }
+
+    @Override
+    public void onDeleted(String movieInfoId) {
+        if (enabled)
+            overlay.put(movieInfoId, null);
+    }
+
+    @Override
+    public void onDeletedAll() {
+        overlay.clear();
+    }
+
+    @Override
+    public void onWriteFailed(String movieInfoId) {
+        if (!enabled)
+            return;
+        if (movieInfoId == null) {
+            load().subscribe(null, e -> log.warn("Reloading the title index failed", e));
+            return;
+        }
+        moviesInfoRepository.findById(movieInfoId)
+                .map(MoviesInfoDTO::new)
+                .doOnNext(this::onSaved)
+                .switchIfEmpty(Mono.fromRunnable(() -> onDeleted(movieInfoId)))
+                .subscribe(null, e -> log.warn("Refreshing {} in the title index failed", movieInfoId, e));
+    }
+
+    /**
+     * Merges the overlay into a new base.
+     */
+    Mono<Void> rebuild() {
+        return overlay.merge();
+    }
+
+    @PreDestroy
+    public void close() {
+        overlay.close();
+    }
+
+    long estimatedBytes() {
+        return overlay.state().base().estimatedBytes;
+    }
+
+    int overlaySize() {
+        return overlay.overlaySize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("moviesinfo.suggest.titles", this, index -> index.overlay.state().base().size())
+                .description("Titles in the autocomplete index base, not counting the overlay")
+                .register(registry);
+        Gauge.builder("moviesinfo.suggest.bytes", this, MoviesInfoTitleIndex::estimatedBytes)
+                .description("Estimated heap footprint of the autocomplete index base")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("moviesinfo.suggest.overlay.size", this, MoviesInfoTitleIndex::overlaySize)
+                .description("Writes not yet merged into the autocomplete index base")
+                .register(registry);
+    }
+}
@@ -0,0 +1,283 @@
+package com.reactivespring.suggest;
+
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.snapshot.MoviesInfoOverlay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable prefix index over normalized titles. Rows are sorted by {@code key, movieInfoId}, so row order is title
+ * order.
+ * <ul>
+ *     <li>{@code suffixes} lists every position where a word starts in a key, sorted by the text from there on, so the
+ *     titles with a word starting with a prefix are one contiguous range found by binary search. Each title is stored
+ *     once; a suffix is just {@code row << 32 | offset}</li>
+ *     <li>{@code best} is a segment tree over {@code suffixes} holding the best ranked position of every node, so the
+ *     top k of a range are found in {@code O(k log n)} however many titles share the prefix</li>
+ * </ul>
+ */
+final class MoviesInfoTitles implements MoviesInfoOverlay.Base<MoviesInfoTitles.Entry> {
+
+    /**
+     * Newest first, then title order.
+     */
+    static final Comparator<Entry> RANK = Comparator
+            .comparing((Entry entry) -> entry.suggestion().getYear(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Entry::key)
+            .thenComparing(entry -> entry.suggestion().getMovieInfoId());
+
+    private static final Comparator<Entry> ROW_ORDER = Comparator
+            .comparing(Entry::key)
+            .thenComparing(entry -> entry.suggestion().getMovieInfoId());
+
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+    // compressed oops: 12 byte header + 4 byte length for arrays, 4 bytes per reference
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    // String object plus the header of its byte[]; Latin-1 content adds a byte per character
+    private static final int STRING_OVERHEAD_BYTES = 24 + ARRAY_HEADER_BYTES;
+
+    /**
+     * A title with its normalized form, and the version of the movie info if known; the index does not keep versions.
+     */
+    record Entry(String key, MoviesInfoSuggestion suggestion, Long version) {
+    }
+
+    final String[] ids;
+    final String[] names;
+    final String[] keys;
+    final int[] years;
+    final long[] suffixes;
+    final int[] best;
+    final long estimatedBytes;
+
+    private MoviesInfoTitles(String[] ids, String[] names, String[] keys, int[] years, long[] suffixes, long stringBytes) {
+        this.ids = ids;
+        this.names = names;
+        this.keys = keys;
+        this.years = years;
+        this.suffixes = suffixes;
+        this.best = buildTree();
+        this.estimatedBytes = stringBytes
+                + arrayBytes(ids.length, REFERENCE_BYTES) * 3
+                + arrayBytes(years.length, Integer.BYTES)
+                + arrayBytes(suffixes.length, Long.BYTES)
+                + arrayBytes(best.length, Integer.BYTES);
+    }
+
+    static MoviesInfoTitles of(List<Entry> entries) {
+        List<Entry> rows = new ArrayList<>(entries);
+        rows.sort(ROW_ORDER);
+        int size = rows.size();
+
+        String[] ids = new String[size];
+        String[] names = new String[size];
+        String[] keys = new String[size];
+        int[] years = new int[size];
+        long[] suffixes = new long[size];
+        int suffixCount = 0;
+        long stringBytes = 0;
+
+        for (int row = 0; row < size; row++) {
+            Entry entry = rows.get(row);
+            ids[row] = entry.suggestion().getMovieInfoId();
+            names[row] = entry.suggestion().getName();
+            // share the name when normalizing left it unchanged
+            keys[row] = entry.key().equals(names[row]) ? names[row] : entry.key();
+            years[row] = entry.suggestion().getYear() == null ? NO_YEAR : entry.suggestion().getYear();
+            stringBytes += stringBytes(ids[row]) + stringBytes(names[row]) + (keys[row] == names[row] ? 0 : stringBytes(keys[row]));
+
+            String key = keys[row];
+            for (int offset = 0; offset < key.length(); offset++) {
+                if (offset == 0 || key.charAt(offset - 1) == ' ') {
+                    if (suffixCount == suffixes.length)
+                        suffixes = Arrays.copyOf(suffixes, Math.max(16, suffixes.length * 2));
+                    suffixes[suffixCount++] = (long) row << 32 | offset;
+                }
+            }
+        }
+
+        // sorted boxed once at build time, off the request threads
+        String[] sortKeys = keys;
+        suffixes = Arrays.stream(suffixes, 0, suffixCount)
+                .boxed()
+                .sorted((a, b) -> compareSuffixes(sortKeys, a, b))
+                .mapToLong(Long::longValue)
+                .toArray();
+        return new MoviesInfoTitles(ids, names, keys, years, suffixes, stringBytes);
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public String id(int row) {
+        return ids[row];
+    }
+
+    MoviesInfoSuggestion suggestion(int row) {
+        return new MoviesInfoSuggestion(ids[row], names[row], years[row] == NO_YEAR ? null : years[row]);
+    }
+
+    @Override
+    public Entry row(int row) {
+        return new Entry(keys[row], suggestion(row), null);
+    }
+
+    /**
+     * Visits the rows with a word starting with {@code prefix} best ranked first, each row once, until
+     * {@code visitor} has accepted {@code limit} of them.
+     */
+    void forEachTopMatch(String prefix, int limit, IntPredicate visitor) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        if (from >= to || limit <= 0)
+            return;
+        // intervals of suffix positions keyed by their best position, split around it when it is taken
+        PriorityQueue<int[]> candidates = new PriorityQueue<>((a, b) -> compareRank(a[2], b[2]));
+        candidates.add(new int[]{from, to, bestIn(from, to)});
+        BitSet visited = new BitSet();
+        int accepted = 0;
+        while (!candidates.isEmpty() && accepted < limit) {
+            int[] interval = candidates.poll();
+            int position = interval[2];
+            int row = row(position);
+            if (!visited.get(row)) {
+                visited.set(row);
+                if (visitor.test(row))
+                    accepted++;
+            }
+            if (interval[0] < position)
+                candidates.add(new int[]{interval[0], position, bestIn(interval[0], position)});
+            if (position + 1 < interval[1])
+                candidates.add(new int[]{position + 1, interval[1], bestIn(position + 1, interval[1])});
+        }
+    }
+
+    /**
+     * Whether {@code key} has a word starting with {@code prefix}; the scan counterpart of {@link #forEachTopMatch}.
+     */
+    static boolean matches(String key, String prefix) {
+        if (key.startsWith(prefix))
+            return true;
+        for (int space = key.indexOf(' '); space >= 0; space = key.indexOf(' ', space + 1)) {
+            if (key.startsWith(prefix, space + 1))
+                return true;
+        }
+        return false;
+    }
+
+    private int row(int position) {
+        return (int) (suffixes[position] >>> 32);
+    }
+
+    private int offset(int position) {
+        return (int) suffixes[position];
+    }
+
+    /**
+     * First suffix position not below {@code prefix}, or with {@code upper} the first one above every suffix starting
+     * with it.
+     */
+    private int bound(String prefix, boolean upper) {
+        int low = 0;
+        int high = suffixes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareToPrefix(keys[row(mid)], offset(mid), prefix);
+            if (cmp < 0 || upper && cmp == 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Compares the suffix of {@code key} from {@code offset}, cut to the length of {@code prefix}, with {@code prefix}.
+     */
+    private static int compareToPrefix(String key, int offset, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (offset + i == key.length())
+                return -1;
+            int cmp = Character.compare(key.charAt(offset + i), prefix.charAt(i));
+            if (cmp != 0)
+                return cmp;
+        }
+        return 0;
+    }
+
+    private static int compareSuffixes(String[] keys, long a, long b) {
+        String keyA = keys[(int) (a >>> 32)];
+        String keyB = keys[(int) (b >>> 32)];
+        int offsetA = (int) a;
+        int offsetB = (int) b;
+        int length = Math.min(keyA.length() - offsetA, keyB.length() - offsetB);
+        for (int i = 0; i < length; i++) {
+            int cmp = Character.compare(keyA.charAt(offsetA + i), keyB.charAt(offsetB + i));
+            if (cmp != 0)
+                return cmp;
+        }
+        int cmp = Integer.compare(keyA.length() - offsetA, keyB.length() - offsetB);
+        return cmp != 0 ? cmp : Long.compare(a, b);
+    }
+
+    /**
+     * Leaves at {@code n + position}, every inner node {@code i} the better of {@code 2i} and {@code 2i + 1}.
+     */
+    private int[] buildTree() {
+        int n = suffixes.length;
+        int[] tree = new int[2 * n];
+        for (int position = 0; position < n; position++)
+            tree[n + position] = position;
+        for (int node = n - 1; node > 0; node--)
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        return tree;
+    }
+
+    /**
+     * Best ranked suffix position in {@code [from, to)}.
+     */
+    private int bestIn(int from, int to) {
+        int n = suffixes.length;
+        int result = from;
+        for (int low = from + n, high = to + n; low < high; low >>>= 1, high >>>= 1) {
+            if ((low & 1) == 1)
+                result = better(result, best[low++]);
+            if ((high & 1) == 1)
+                result = better(result, best[--high]);
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        return compareRank(a, b) <= 0 ? a : b;
+    }
+
+    /**
+     * Orders suffix positions as {@link #RANK} orders their rows: newest first, then row order.
+     */
+    private int compareRank(int a, int b) {
+        int rowA = row(a);
+        int rowB = row(b);
+        if (years[rowA] != years[rowB])
+            return years[rowA] > years[rowB] ? -1 : 1;
+        return Integer.compare(rowA, rowB);
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return ARRAY_HEADER_BYTES + (long) length * elementBytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+}
@@ -0,0 +1,11 @@
+package com.reactivespring.tracing;
+
+import reactor.core.publisher.SignalType;
+
+/**
+ * What one traced pipeline did between subscription and termination. {@code firstElementNanos} is -1 when no
+ * element was emitted and {@code error} is null unless the pipeline failed.
+ */
+public record PipelineTrace(String traceId, String pipeline, SignalType signal, long elements,
+                            long firstElementNanos, long durationNanos, Throwable error) {
+}
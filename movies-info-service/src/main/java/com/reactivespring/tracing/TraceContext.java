@@ -0,0 +1,11 @@
+package com.reactivespring.tracing;
+
+/**
+ * Trace id and sampling decision of the current request, carried in the Reactor {@code Context} under
+ * {@link #KEY}.
+ */
+public record TraceContext(String traceId, boolean sampled) {
+
+    public static final String KEY = TraceContext.class.getName();
+    public static final String HEADER = "X-Trace-Id";
+}
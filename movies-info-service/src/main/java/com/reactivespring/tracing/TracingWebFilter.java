@@ -0,0 +1,42 @@
+package com.reactivespring.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per request whether its pipelines are traced ({@code moviesinfo.tracing.sample-rate}, 0 to 1) and
+ * puts the {@link TraceContext} into the Reactor {@code Context}. An incoming {@code X-Trace-Id} is kept so
+ * traces can be correlated with the caller, and is echoed in the response. With a sample rate of 0 and no
+ * incoming id, requests pass through untouched.
+ */
+@Component
+public class TracingWebFilter implements WebFilter {
+
+    final double sampleRate;
+
+    public TracingWebFilter(@Value("${moviesinfo.tracing.sample-rate:0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String traceId = exchange.getRequest().getHeaders().getFirst(TraceContext.HEADER);
+        if (traceId == null && sampleRate <= 0) {
+            return chain.filter(exchange);
+        }
+        if (traceId == null) {
+            traceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        exchange.getResponse().getHeaders().set(TraceContext.HEADER, traceId);
+        var trace = new TraceContext(traceId, sampled);
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(TraceContext.KEY, trace));
+    }
+}
@@ -0,0 +1,142 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MoviesInfoIdFilterTest {
+
+    MoviesInfoRepository moviesInfoRepositoryMock;
+    MoviesInfoIdFilter moviesInfoIdFilter;
+
+    @BeforeEach
+    void setUp() {
+        moviesInfoRepositoryMock = mock(MoviesInfoRepository.class);
+        moviesInfoIdFilter = new MoviesInfoIdFilter(moviesInfoRepositoryMock, true, 256, 1000, 0.01);
+        var movieInfos = List.of(
+                new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15)),
+                new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18)));
+        when(moviesInfoRepositoryMock.streamAll(anyInt())).thenReturn(Flux.fromIterable(movieInfos));
+    }
+
+    @Test
+    void notReady_LetsEverythingThrough() {
+        //then
+        assertFalse(moviesInfoIdFilter.isReady());
+        assertTrue(moviesInfoIdFilter.mightContain("Inception-2010"));
+    }
+
+    @Test
+    void load() {
+        //when
+        moviesInfoIdFilter.load().block();
+
+        //then
+        assertTrue(moviesInfoIdFilter.isReady());
+        assertTrue(moviesInfoIdFilter.mightContain("Batman Begins-2005"));
+        assertTrue(moviesInfoIdFilter.mightContain("The Dark Knight-2008"));
+        assertFalse(moviesInfoIdFilter.mightContain("Inception-2010"));
+        assertEquals(1, moviesInfoIdFilter.rejected.get());
+    }
+
+    @Test
+    void writes() {
+        //given
+        moviesInfoIdFilter.load().block();
+
+        //when
+        moviesInfoIdFilter.onInserted(new MoviesInfoDTO("Inception-2010", "Inception", 2010, List.of("Leonardo DiCaprio"), "2010-07-16", 0L));
+        moviesInfoIdFilter.remove("Batman Begins-2005", moviesInfoIdFilter.removalStamp());
+
+        //then
+        assertTrue(moviesInfoIdFilter.mightContain("Inception-2010"));
+        assertFalse(moviesInfoIdFilter.mightContain("Batman Begins-2005"));
+        assertTrue(moviesInfoIdFilter.mightContain("The Dark Knight-2008"));
+    }
+
+    @Test
+    void remove_SkippedWhenALoadRacedTheDelete() {
+        //given
+        moviesInfoIdFilter.load().block();
+        long removalStamp = moviesInfoIdFilter.removalStamp();
+
+        //when
+        moviesInfoIdFilter.load().block();
+        moviesInfoIdFilter.remove("Batman Begins-2005", removalStamp);
+
+        //then
+        assertTrue(moviesInfoIdFilter.mightContain("Batman Begins-2005"));
+    }
+
+    @Test
+    void updateThenDelete_RemovesTheId() {
+        //given
+        moviesInfoIdFilter.load().block();
+        moviesInfoIdFilter.onInserted(new MoviesInfoDTO("Inception-2010", "Inception", 2010, List.of("Leonardo DiCaprio"), "2010-07-16", 0L));
+
+        //when
+        moviesInfoIdFilter.onSaved(new MoviesInfoDTO("Inception-2010", "Inception", 2010, List.of("Leonardo DiCaprio", "Tom Hardy"), "2010-07-16", 1L));
+        moviesInfoIdFilter.onSaved(new MoviesInfoDTO("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale"), "2005-06-15", 1L));
+        moviesInfoIdFilter.onWriteFailed("Batman Begins-2005");
+        moviesInfoIdFilter.remove("Inception-2010", moviesInfoIdFilter.removalStamp());
+        moviesInfoIdFilter.remove("Batman Begins-2005", moviesInfoIdFilter.removalStamp());
+
+        //then
+        assertFalse(moviesInfoIdFilter.mightContain("Inception-2010"));
+        assertFalse(moviesInfoIdFilter.mightContain("Batman Begins-2005"));
+    }
+
+    @Test
+    void onInsertFailed_AddsTheId() {
+        //given
+        moviesInfoIdFilter.load().block();
+
+        //when
+        moviesInfoIdFilter.onInsertFailed("Inception-2010");
+
+        //then
+        assertTrue(moviesInfoIdFilter.mightContain("Inception-2010"));
+    }
+
+    @Test
+    void falsePositiveRateWithinBound() {
+        //given
+        var filter = new CountingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("present-" + i));
+
+        //when
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("absent-" + i)).count();
+
+        //then
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("present-" + i)));
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void saturatedCountersAreNeverDecremented() {
+        //given
+        var filter = new CountingBloomFilter(10, 0.01);
+        IntStream.range(0, 20).forEach(i -> filter.add("Batman Begins-2005"));
+
+        //when
+        IntStream.range(0, 20).forEach(i -> filter.remove("Batman Begins-2005"));
+
+        //then
+        assertTrue(filter.mightContain("Batman Begins-2005"));
+    }
+}
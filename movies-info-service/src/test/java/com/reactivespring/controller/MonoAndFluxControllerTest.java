@@ -1,9 +1,11 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.tracing.ReactiveTracer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.test.StepVerifier;
 
@@ -12,6 +14,7 @@ import java.util.Objects;
 import static org.junit.jupiter.api.Assertions.*;
 
 @WebFluxTest(controllers = MonoAndFluxController.class)
+@Import(ReactiveTracer.class)
 @AutoConfigureWebTestClient
 class MonoAndFluxControllerTest {
 
@@ -1,28 +1,45 @@
 package com.reactivespring.controller;
 
 import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoBatchResult;
+import com.reactivespring.domain.MoviesInfoChange;
 import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.domain.MoviesInfoPage;
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.exception.MoviesInfoConflictException;
 import com.reactivespring.exception.MoviesInfoException;
+import com.reactivespring.service.MoviesInfoChangeFeed;
 import com.reactivespring.service.MoviesInfoService;
+import com.reactivespring.tracing.ReactiveTracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = MoviesInfoController.class)
+@Import(ReactiveTracer.class)
 @AutoConfigureWebTestClient
 class MoviesInfoControllerTest {
 
@@ -34,6 +51,9 @@ class MoviesInfoControllerTest {
     @MockBean
     MoviesInfoService moviesInfoServiceMock;
 
+    @MockBean
+    MoviesInfoChangeFeed moviesInfoChangeFeedMock;
+
     MoviesInfo movieInfo, movieInfo1, movieInfo2;
 
     @BeforeEach
@@ -79,6 +99,7 @@ class MoviesInfoControllerTest {
                 .bodyValue(moviesInfoDTO)
                 .exchange()
                 .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
                 .expectBody(String.class)
                 .consumeWith(moviesInfoEntityExchangeResult -> {
                     var errorMessage = moviesInfoEntityExchangeResult.getResponseBody();
@@ -104,6 +125,28 @@ class MoviesInfoControllerTest {
                 .expectStatus().is5xxServerError();
     }
 
+    @Test
+    void addMovieInfos() {
+        //when
+        when(moviesInfoServiceMock.addMovieInfos(any())).thenReturn(Flux.just(
+                MoviesInfoBatchResult.created("Inception-2010"),
+                MoviesInfoBatchResult.duplicate("Batman Begins-2005")));
+
+        //then
+        webTestClient.post()
+                .uri("/moviesInfo/addBatch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("""
+                        {"name":"Inception","year":2010,"cast":["Leonardo DiCaprio"],"releaseDate":"2010-07-16"}
+                        {"name":"Batman Begins","year":2005,"cast":["Chritian Bale"],"releaseDate":"2005-06-15"}
+                        """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoBatchResult.class)
+                .hasSize(2);
+    }
+
     @Test
     void getMovieInfo() {
         //when
@@ -125,15 +168,196 @@ class MoviesInfoControllerTest {
     @Test
     void getAllMovies() {
         //when
-        when(moviesInfoServiceMock.getAllMovies()).thenReturn(Flux.just(movieInfo, movieInfo1, movieInfo2).map(MoviesInfoDTO::new));
+        when(moviesInfoServiceMock.getAllMovies((String) null)).thenReturn(Flux.just(movieInfo, movieInfo1, movieInfo2).map(MoviesInfoDTO::new));
 
         //then
         webTestClient.get()
                 .uri("/moviesInfo/getAllMoviesInfo")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
                 .expectBodyList(MoviesInfoDTO.class)
                 .hasSize(3);
+        verify(moviesInfoServiceMock, never()).getMoviesPage(any(), any(), any());
+    }
+
+    @Test
+    void getAllMovies_InvalidFields() {
+        //when
+        when(moviesInfoServiceMock.getAllMovies("budget")).thenThrow(new MoviesInfoException("Unknown field: budget"));
+
+        //then
+        webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo?fields=budget")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAllMovies_Paged() {
+        //when
+        when(moviesInfoServiceMock.getMoviesPage("cursor-1", 2, null)).thenReturn(Mono.just(new MoviesInfoPage(
+                List.of(new MoviesInfoDTO(movieInfo), new MoviesInfoDTO(movieInfo1)), "cursor-2")));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/getAllMoviesInfo")
+                        .queryParam("cursor", "cursor-1")
+                        .queryParam("limit", 2)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "cursor-2")
+                .expectBodyList(MoviesInfoDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getAllMovies_InvalidCursor() {
+        //when
+        when(moviesInfoServiceMock.getMoviesPage("%%%", null, null)).thenReturn(Mono.error(new MoviesInfoException("Invalid cursor: %%%")));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/getAllMoviesInfo")
+                        .queryParam("cursor", "%%%")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamAllMovies() {
+        //when
+        when(moviesInfoServiceMock.getAllMovies()).thenReturn(Flux.just(movieInfo, movieInfo1, movieInfo2).map(MoviesInfoDTO::new));
+
+        //then
+        var moviesInfoFlux = webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(moviesInfoFlux)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamMovieInfosByYear() {
+        //when
+        when(moviesInfoServiceMock.getMovieInfosByYear(2008)).thenReturn(Flux.just(movieInfo1).map(MoviesInfoDTO::new));
+
+        //then
+        var moviesInfoFlux = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/get")
+                        .queryParam("year", 2008)
+                        .build())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(moviesInfoFlux)
+                .assertNext(moviesInfoDTO -> assertEquals("The Dark Knight", moviesInfoDTO.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfosByYearRange() {
+        //when
+        when(moviesInfoServiceMock.getMovieInfosByYearRange(2005, 2008)).thenReturn(Flux.just(movieInfo, movieInfo1).map(MoviesInfoDTO::new));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/byYears")
+                        .queryParam("from", 2005)
+                        .queryParam("to", 2008)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getMovieInfosByCastMember() {
+        //when
+        when(moviesInfoServiceMock.getMovieInfosByCastMember("HeathLedger")).thenReturn(Flux.just(movieInfo1).map(MoviesInfoDTO::new));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/byCast")
+                        .queryParam("member", "HeathLedger")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoDTO.class)
+                .value(moviesInfoDTOs -> assertEquals("The Dark Knight", moviesInfoDTOs.get(0).getName()));
+    }
+
+    @Test
+    void suggest() {
+        //when
+        when(moviesInfoServiceMock.suggest("dark", 10)).thenReturn(Mono.just(List.of(new MoviesInfoSuggestion("The Dark Knight-2008", "The Dark Knight", 2008))));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/suggest")
+                        .queryParam("q", "dark")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoSuggestion.class)
+                .value(suggestions -> assertEquals("The Dark Knight-2008", suggestions.get(0).getMovieInfoId()));
+    }
+
+    @Test
+    void suggest_Blank() {
+        //when
+        when(moviesInfoServiceMock.suggest("-", 10)).thenReturn(Mono.error(new MoviesInfoException("Query must contain a letter or digit")));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/suggest")
+                        .queryParam("q", "-")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamChanges() {
+        //when
+        when(moviesInfoChangeFeedMock.changes("token-1")).thenReturn(Flux.just(ServerSentEvent.<MoviesInfoChange>builder()
+                .id("token-2")
+                .event("insert")
+                .data(new MoviesInfoChange("insert", "The Dark Knight-2008", new MoviesInfoDTO(movieInfo1)))
+                .build()));
+
+        //then
+        var changes = webTestClient.get()
+                .uri("/moviesInfo/changes")
+                .header("Last-Event-ID", "token-1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<MoviesInfoChange>>() {
+                })
+                .getResponseBody();
+
+        StepVerifier.create(changes)
+                .assertNext(event -> {
+                    assertEquals("token-2", event.id());
+                    assertEquals("insert", event.event());
+                    assertEquals("The Dark Knight-2008", event.data().getMovieInfoId());
+                })
+                .verifyComplete();
     }
 
     @Test
@@ -163,6 +387,66 @@ class MoviesInfoControllerTest {
             });
     }
 
+    @Test
+    void patchMovieInfo() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setName("The Dark Knight (IMAX)");
+        patch.setVersion(2L);
+        MoviesInfo moviesInfo = new MoviesInfo("The Dark Knight-2008", "The Dark Knight (IMAX)", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18), 3L);
+
+        //when
+        when(moviesInfoServiceMock.patchMovieById("The Dark Knight-2008", patch)).thenReturn(Mono.just(moviesInfo).map(MoviesInfoDTO::new));
+
+        //then
+        webTestClient.patch()
+            .uri("/moviesInfo/The Dark Knight-2008")
+            .bodyValue(patch)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(MoviesInfoDTO.class)
+            .consumeWith(moviesInfoEntityExchangeResult1 -> {
+                var patchedMovieInfo = moviesInfoEntityExchangeResult1.getResponseBody();
+                assert patchedMovieInfo != null;
+                assertEquals("The Dark Knight (IMAX)", patchedMovieInfo.getName());
+                assertEquals(3L, patchedMovieInfo.getVersion());
+            });
+    }
+
+    @Test
+    void patchMovieInfo_Conflict() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setName("The Dark Knight (IMAX)");
+        patch.setVersion(1L);
+
+        //when
+        when(moviesInfoServiceMock.patchMovieById("The Dark Knight-2008", patch)).thenReturn(Mono.error(new MoviesInfoConflictException("stale")));
+
+        //then
+        webTestClient.patch()
+            .uri("/moviesInfo/The Dark Knight-2008")
+            .bodyValue(patch)
+            .exchange()
+            .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void patchMovieInfo_Invalid() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+
+        //when
+        when(moviesInfoServiceMock.patchMovieById("The Dark Knight-2008", patch)).thenReturn(Mono.error(new MoviesInfoException("Nothing to update")));
+
+        //then
+        webTestClient.patch()
+            .uri("/moviesInfo/The Dark Knight-2008")
+            .bodyValue(patch)
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
     @Test
     void deleteMovieInfo() {
         //when
@@ -192,7 +476,7 @@ class MoviesInfoControllerTest {
     @Test
     void getMovieInfosByYear() {
         //when
-        when(moviesInfoServiceMock.getMovieInfosByYear(2008)).thenReturn(Flux.just(movieInfo1).map(MoviesInfoDTO::new));
+        when(moviesInfoServiceMock.getMovieInfosByYearPage(2008, null, null, null)).thenReturn(Mono.just(new MoviesInfoPage(List.of(new MoviesInfoDTO(movieInfo1)), null)));
 
         //then
         webTestClient.get()
@@ -204,4 +488,21 @@ class MoviesInfoControllerTest {
                 .expectBodyList(MoviesInfoDTO.class)
                 .hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMovieInfosByYear_NotModified() {
+        //when
+        when(moviesInfoServiceMock.getMovieInfosByYearPageETag(2008, null, null, null)).thenReturn(Mono.just("\"2008-page\""));
+        when(moviesInfoServiceMock.getMovieInfosByYearPage(2008, null, null, null)).thenReturn(Mono.error(new AssertionError("page must not be loaded")));
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/get")
+                        .queryParam("year", 2008)
+                        .build())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"2008-page\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2008-page\"");
+    }
+}
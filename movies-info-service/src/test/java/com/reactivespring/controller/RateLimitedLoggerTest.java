@@ -0,0 +1,46 @@
+package com.reactivespring.controller;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitedLoggerTest {
+
+    Logger logger = mock(Logger.class);
+    RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 10);
+
+    @Test
+    void logsAtMostThePermittedRateAndReportsTheRest() {
+        //given
+        when(logger.isWarnEnabled()).thenReturn(true);
+
+        //when
+        for (int i = 0; i < 15; i++) {
+            rateLimitedLogger.warn("Rejected invalid request: {}", i);
+        }
+        rateLimitedLogger.windowStart.set(System.nanoTime() - TimeUnit.SECONDS.toNanos(2));
+        rateLimitedLogger.warn("Rejected invalid request: {}", 15);
+
+        //then
+        verify(logger, times(10)).warn(eq("Rejected invalid request: {}"), any(Object.class));
+        verify(logger).warn("Rejected invalid request: {} ({} similar messages suppressed)", 15, 5L);
+    }
+
+    @Test
+    void skipsWorkWhenWarnIsDisabled() {
+        //when
+        rateLimitedLogger.warn("Rejected invalid request: {}", 1);
+
+        //then
+        verify(logger, times(0)).warn(anyString(), any(Object.class));
+    }
+}
@@ -0,0 +1,90 @@
+package com.reactivespring.integration;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.repository.MoviesInfoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@AutoConfigureObservability(tracing = false)
+class MetricsIntegrationTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    MoviesInfoRepository movieInfoRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        movieInfoRepository.save(new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15))).block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void serverRequestsAreTaggedWithTheRouteTemplate() {
+        //when
+        for (var movieId : List.of("Batman Begins-2005", "abc", "def")) {
+            webTestClient.get()
+                    .uri("/moviesInfo/get/{movieId}", movieId)
+                    .exchange();
+        }
+
+        //then
+        var uris = meterRegistry.find("http.server.requests").timers().stream()
+                .map(timer -> timer.getId().getTag("uri"))
+                .toList();
+        assertTrue(uris.contains("/moviesInfo/get/{movieId}"), uris.toString());
+        assertFalse(uris.stream().anyMatch(uri -> uri.contains("abc")), uris.toString());
+        meterRegistry.find("reactor.netty.http.server.data.sent.time").meters()
+                .forEach(meter -> assertEquals("/moviesInfo/**", meter.getId().getTag("uri")));
+    }
+
+    @Test
+    void mongoCommandsAndPoolCheckoutsAreTimed() {
+        assertNotNull(meterRegistry.find("mongodb.driver.commands").tag("command", "insert").timer());
+        assertNotNull(meterRegistry.find("mongodb.driver.pool.checkout").timer());
+        assertNotNull(meterRegistry.find("mongodb.driver.pool.size").gauge());
+    }
+
+    @Test
+    void prometheusEndpoint() {
+        //given
+        webTestClient.get()
+                .uri("/moviesInfo/get/{movieId}", "Batman Begins-2005")
+                .exchange();
+
+        //then
+        webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertTrue(body.contains("http_server_requests_seconds_bucket"), "no latency histogram exported"));
+    }
+}
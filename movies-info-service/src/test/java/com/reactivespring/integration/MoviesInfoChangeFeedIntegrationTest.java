@@ -0,0 +1,144 @@
+package com.reactivespring.integration;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoChange;
+import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.service.MoviesInfoChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Change streams need a replica set, so this test runs embedded Mongo as a single-node replica set.
+ * <p>
+ * A change stream only sees writes made after the server opened it, which the feed does not signal. Each test
+ * therefore keeps inserting probe documents until every subscriber has received it, and only then makes the writes
+ * it asserts on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "de.flapdoodle.mongodb.embedded.storage.repl-set-name=rs0")
+class MoviesInfoChangeFeedIntegrationTest {
+
+    private static final String PROBE_ID_PREFIX = "probe-";
+    private static final Duration PROBE_INTERVAL = Duration.ofMillis(100);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    MoviesInfoChangeFeed moviesInfoChangeFeed;
+
+    @Autowired
+    MoviesInfoRepository movieInfoRepository;
+
+    List<Disposable> subscriptions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void changes_SharedByLiveSubscribers() {
+        //given
+        var first = subscribe(moviesInfoChangeFeed.changes(null));
+        var second = subscribe(moviesInfoChangeFeed.changes(null));
+        awaitOpen(first, second);
+
+        //when
+        movieInfoRepository.insert(batmanBegins())
+                .then(movieInfoRepository.deleteById("Batman Begins-2005"))
+                .block();
+
+        //then
+        for (Flux<ServerSentEvent<MoviesInfoChange>> events : List.of(first, second)) {
+            StepVerifier.create(withoutProbes(events).take(2))
+                    .assertNext(event -> {
+                        assertEquals("insert", event.event());
+                        assertEquals("Batman Begins", event.data().getMovieInfo().getName());
+                    })
+                    .assertNext(event -> {
+                        assertEquals("delete", event.event());
+                        assertEquals("Batman Begins-2005", event.data().getMovieInfoId());
+                        assertNull(event.data().getMovieInfo());
+                    })
+                    .expectComplete()
+                    .verify(TIMEOUT);
+        }
+    }
+
+    @Test
+    void changes_ResumeAfterLastEventId() {
+        //given
+        var live = subscribe(moviesInfoChangeFeed.changes(null));
+        awaitOpen(live);
+        movieInfoRepository.insert(batmanBegins()).block();
+        var lastEventId = withoutProbes(live).blockFirst(TIMEOUT).id();
+        subscriptions.forEach(Disposable::dispose);
+
+        //when
+        // written while no client is connected
+        movieInfoRepository.insert(new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18))).block();
+
+        //then
+        StepVerifier.create(withoutProbes(moviesInfoChangeFeed.changes(lastEventId)).next())
+                .assertNext(event -> {
+                    assertEquals("insert", event.event());
+                    assertEquals("The Dark Knight-2008", event.data().getMovieInfoId());
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    /**
+     * Subscribes right away and keeps every event, so the test can read them after making its writes.
+     */
+    private Flux<ServerSentEvent<MoviesInfoChange>> subscribe(Flux<ServerSentEvent<MoviesInfoChange>> changes) {
+        var events = changes.replay();
+        subscriptions.add(events.connect());
+        return events;
+    }
+
+    @SafeVarargs
+    private void awaitOpen(Flux<ServerSentEvent<MoviesInfoChange>>... feeds) {
+        var allSawProbe = Flux.fromArray(feeds)
+                .flatMap(events -> events.filter(MoviesInfoChangeFeedIntegrationTest::isProbe).next())
+                .then();
+        Flux.interval(Duration.ZERO, PROBE_INTERVAL)
+                .concatMap(i -> movieInfoRepository.insert(new MoviesInfo(PROBE_ID_PREFIX + i, "probe", 2000, null, null)))
+                .takeUntilOther(allSawProbe)
+                .then()
+                .block(TIMEOUT);
+    }
+
+    /**
+     * A probe write still in flight when {@link #awaitOpen} returns may land after the writes under test.
+     */
+    private static Flux<ServerSentEvent<MoviesInfoChange>> withoutProbes(Flux<ServerSentEvent<MoviesInfoChange>> events) {
+        return events.filter(event -> !isProbe(event));
+    }
+
+    private static boolean isProbe(ServerSentEvent<MoviesInfoChange> event) {
+        String movieInfoId = event.data().getMovieInfoId();
+        return movieInfoId != null && movieInfoId.startsWith(PROBE_ID_PREFIX);
+    }
+
+    private static MoviesInfo batmanBegins() {
+        return new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15));
+    }
+}
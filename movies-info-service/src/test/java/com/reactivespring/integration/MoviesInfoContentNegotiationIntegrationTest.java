@@ -0,0 +1,144 @@
+package com.reactivespring.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoBatchResult;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+class MoviesInfoContentNegotiationIntegrationTest {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType APPLICATION_STREAM_SMILE = MediaType.parseMediaType("application/stream+x-jackson-smile");
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    MoviesInfoRepository movieInfoRepository;
+
+    ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @BeforeEach
+    void setUp() {
+        var movieInfos = IntStream.range(0, 50)
+                .mapToObj(i -> new MoviesInfo("Movie " + i + "-2008", "Movie " + i, 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18)))
+                .toList();
+        movieInfoRepository.saveAll(movieInfos).blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void getMovieInfo_Cbor() throws Exception {
+        var body = webTestClient.get()
+                .uri("/moviesInfo/get/Movie 1-2008")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        var moviesInfoDTO = cborMapper.readValue(body, MoviesInfoDTO.class);
+        assertEquals("Movie 1", moviesInfoDTO.getName());
+        assertEquals("2008-07-18", moviesInfoDTO.getReleaseDate());
+    }
+
+    @Test
+    void getMovieInfosByYear_Smile() throws Exception {
+        var body = webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&limit=10")
+                .accept(APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        List<MoviesInfoDTO> moviesInfoDTOs = smileMapper.readValue(body, new TypeReference<>() {
+        });
+        assertEquals(10, moviesInfoDTOs.size());
+    }
+
+    @Test
+    void streamAllMovies_Smile() {
+        var moviesInfoDTOs = webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo")
+                .accept(APPLICATION_STREAM_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_STREAM_SMILE)
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(moviesInfoDTOs)
+                .expectNextCount(50)
+                .verifyComplete();
+    }
+
+    @Test
+    void addMovieInfos_Smile() throws Exception {
+        //given
+        var moviesInfoDTOs = List.of(
+                new MoviesInfoDTO(null, "Inception", 2010, List.of("Leonardo DiCaprio"), "2010-07-16"),
+                new MoviesInfoDTO(null, "Interstellar", 2014, List.of("Matthew McConaughey"), "2014-11-07"));
+
+        //when
+        var results = webTestClient.post()
+                .uri("/moviesInfo/addBatch")
+                .contentType(APPLICATION_SMILE)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(smileMapper.writeValueAsBytes(moviesInfoDTOs))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoBatchResult.class)
+                .returnResult()
+                .getResponseBody();
+
+        //then
+        assert results != null;
+        assertEquals(2, results.size());
+        results.forEach(result -> assertEquals(MoviesInfoBatchResult.Status.CREATED, result.getStatus()));
+    }
+
+    @Test
+    void getAllMovies_Gzip() {
+        webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+}
@@ -1,6 +1,7 @@
 package com.reactivespring.integration;
 
 import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoBatchResult;
 import com.reactivespring.domain.MoviesInfoDTO;
 import com.reactivespring.exception.MoviesInfoException;
 import com.reactivespring.repository.MoviesInfoRepository;
@@ -10,14 +11,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -81,6 +88,37 @@ class MoviesInfoControllerIntegrationTest {
                 .expectBody(MoviesInfoException.class);
     }
 
+    @Test
+    void addMovieInfos() {
+        //given
+        var ndjson = """
+                {"name":"Inception","year":2010,"cast":["Leonardo DiCaprio"],"releaseDate":"2010-07-16"}
+                {"name":"Batman Begins","year":2005,"cast":["Chritian Bale"],"releaseDate":"2005-06-15"}
+                {"name":"","year":2014,"cast":["Matthew McConaughey"],"releaseDate":"2014-11-07"}
+                """;
+
+        //when
+        var results = webTestClient.post()
+                .uri("/moviesInfo/addBatch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(ndjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoBatchResult.class)
+                .returnResult()
+                .getResponseBody();
+
+        //then
+        assert results != null;
+        Map<String, MoviesInfoBatchResult.Status> statuses = results.stream()
+                .collect(Collectors.toMap(MoviesInfoBatchResult::getMovieInfoId, MoviesInfoBatchResult::getStatus));
+        assertEquals(MoviesInfoBatchResult.Status.CREATED, statuses.get("Inception-2010"));
+        assertEquals(MoviesInfoBatchResult.Status.DUPLICATE, statuses.get("Batman Begins-2005"));
+        assertEquals(MoviesInfoBatchResult.Status.INVALID, statuses.get("-2014"));
+        assertEquals(4L, movieInfoRepository.count().block());
+    }
+
     @Test
     void getMovieInfo() {
         webTestClient.get()
@@ -95,6 +133,125 @@ class MoviesInfoControllerIntegrationTest {
                 });
     }
 
+    @Test
+    void getMovieInfo_NotModified() {
+        var eTag = webTestClient.get()
+                .uri("/moviesInfo/get/The Dark Knight-2008")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseHeaders().getETag();
+        assert eTag != null;
+
+        webTestClient.get()
+                .uri("/moviesInfo/get/The Dark Knight-2008")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setYear(2009);
+        webTestClient.patch()
+                .uri("/moviesInfo/The Dark Knight-2008")
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/moviesInfo/get/The Dark Knight-2008")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(MoviesInfoDTO.class)
+                .consumeWith(result -> assertEquals(2009, result.getResponseBody().getYear()));
+    }
+
+    @Test
+    void getMovieInfoByYear_NotModified() {
+        var eTag = webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=name")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseHeaders().getETag();
+        assert eTag != null;
+
+        webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=name")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+
+        webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=name,cast")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk();
+
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setName("The Dark Knight (IMAX)");
+        webTestClient.patch()
+                .uri("/moviesInfo/The Dark Knight-2008")
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=name")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoDTO.class)
+                .consumeWith(result -> assertEquals("The Dark Knight (IMAX)", result.getResponseBody().get(0).getName()));
+    }
+
+    @Test
+    void getMovieInfo_ModifiedAfterDeleteAndAddAgain() {
+        //given
+        var eTag = webTestClient.get()
+                .uri("/moviesInfo/get/The Dark Knight-2008")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseHeaders().getETag();
+        var pageETag = webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=cast")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseHeaders().getETag();
+        assert eTag != null && pageETag != null;
+
+        //when
+        webTestClient.delete()
+                .uri("/moviesInfo/delete/The Dark Knight-2008")
+                .exchange()
+                .expectStatus().isAccepted();
+        webTestClient.post()
+                .uri(MOVIE_ADD_URL)
+                .bodyValue(new MoviesInfo(null, "The Dark Knight", 2008, List.of("Gary Oldman"), LocalDate.of(2008, 7, 18)))
+                .exchange()
+                .expectStatus().isOk();
+
+        //then
+        webTestClient.get()
+                .uri("/moviesInfo/get/The Dark Knight-2008")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(MoviesInfoDTO.class)
+                .consumeWith(result -> assertEquals(List.of("Gary Oldman"), result.getResponseBody().getCast()));
+        webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=cast")
+                .header(HttpHeaders.IF_NONE_MATCH, pageETag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoDTO.class)
+                .consumeWith(result -> assertEquals(List.of("Gary Oldman"), result.getResponseBody().get(0).getCast()));
+    }
+
     @Test
     void getAllMovies() {
         webTestClient.get()
@@ -105,6 +262,72 @@ class MoviesInfoControllerIntegrationTest {
                 .hasSize(3);
     }
 
+    @Test
+    void getAllMovies_Paged() {
+        var firstPage = webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoDTO.class)
+                .hasSize(2)
+                .returnResult();
+        var next = firstPage.getResponseHeaders().getFirst("X-Next-Cursor");
+        assert next != null;
+        assertEquals("Batman Begins-2005", firstPage.getResponseBody().get(0).getMovieInfoId());
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/moviesInfo/getAllMoviesInfo")
+                        .queryParam("cursor", next)
+                        .queryParam("limit", 2)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
+                .expectBodyList(MoviesInfoDTO.class)
+                .hasSize(1)
+                .consumeWith(result -> assertEquals("The Dark Knight Rises-2012", result.getResponseBody().get(0).getMovieInfoId()));
+    }
+
+    @Test
+    void streamAllMovies() {
+        var moviesInfoFlux = webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(MoviesInfoDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(moviesInfoFlux)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfoByYear_Projected() {
+        webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MoviesInfoDTO.class)
+                .hasSize(1)
+                .consumeWith(result -> {
+                    var moviesInfoDTO = result.getResponseBody().get(0);
+                    assertEquals("The Dark Knight-2008", moviesInfoDTO.getMovieInfoId());
+                    assertEquals("The Dark Knight", moviesInfoDTO.getName());
+                    assertNull(moviesInfoDTO.getCast());
+                    assertNull(moviesInfoDTO.getReleaseDate());
+                });
+    }
+
+    @Test
+    void getMovieInfoByYear_UnknownField() {
+        webTestClient.get()
+                .uri("/moviesInfo/get?year=2008&fields=budget")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void updateMovieInfo() {
         //given
@@ -145,6 +368,54 @@ class MoviesInfoControllerIntegrationTest {
         //then
     }
 
+    @Test
+    void patchMovieInfo() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setReleaseDate("2008-07-21");
+        patch.setVersion(0L);
+
+        //when
+        webTestClient.patch()
+                .uri("/moviesInfo/The Dark Knight-2008")
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(MoviesInfoDTO.class)
+                .consumeWith(moviesInfoEntityExchangeResult1 -> {
+                    var patchedMovieInfo = moviesInfoEntityExchangeResult1.getResponseBody();
+                    assert patchedMovieInfo != null;
+                    assertEquals("The Dark Knight", patchedMovieInfo.getName());
+                    assertEquals("2008-07-21", patchedMovieInfo.getReleaseDate());
+                    assertEquals(1L, patchedMovieInfo.getVersion());
+                });
+
+        //then
+        webTestClient.patch()
+                .uri("/moviesInfo/The Dark Knight-2008")
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void patchMovieInfo_NotExisting() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setYear(2009);
+        patch.setVersion(0L);
+
+        //when
+        webTestClient.patch()
+                .uri("/moviesInfo/The Dark Knight1-2008")
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+
+        //then
+    }
+
     @Test
     void deleteMovieInfo() {
         webTestClient.delete()
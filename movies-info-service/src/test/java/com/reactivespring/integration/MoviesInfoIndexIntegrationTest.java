@@ -0,0 +1,101 @@
+package com.reactivespring.integration;
+
+import com.reactivespring.config.MoviesInfoIndexInitializer;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MoviesInfoIndexIntegrationTest {
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    MoviesInfoIndexInitializer moviesInfoIndexInitializer;
+
+    @Autowired
+    MoviesInfoRepository movieInfoRepository;
+
+    @BeforeEach
+    void setUp() {
+        MoviesInfo movieInfo = new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15));
+        MoviesInfo movieInfo1 = new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18));
+        MoviesInfo movieInfo2 = new MoviesInfo("The Dark Knight Rises-2012", "The Dark Knight Rises", 2012, List.of("Chritian Bale", "Tom Hardy"), LocalDate.of(2012, 7, 20));
+        movieInfoRepository.saveAll(List.of(movieInfo, movieInfo1, movieInfo2)).blockLast();
+        moviesInfoIndexInitializer.createIndexes().block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void findByYear_UsesIndex() {
+        var winningPlan = winningPlan(new Document("year", 2008), null, null);
+
+        assertTrue(winningPlan.contains("IXSCAN"), winningPlan);
+        assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+    }
+
+    @Test
+    void findByYearPage_ProjectedToName_IsCovered() {
+        var winningPlan = winningPlan(
+                new Document("year", 2008).append("_id", new Document("$gt", "")),
+                new Document("_id", 1).append("name", 1).append("version", 1),
+                new Document("year", 1).append("_id", 1));
+
+        assertTrue(winningPlan.contains("IXSCAN"), winningPlan);
+        assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+        assertFalse(winningPlan.contains("FETCH"), winningPlan);
+    }
+
+    @Test
+    void findByYearPage_ProjectedToVersion_IsCovered() {
+        var winningPlan = winningPlan(
+                new Document("year", 2008).append("_id", new Document("$gt", "")),
+                new Document("_id", 1).append("version", 1),
+                new Document("year", 1).append("_id", 1));
+
+        assertTrue(winningPlan.contains("IXSCAN"), winningPlan);
+        assertFalse(winningPlan.contains("FETCH"), winningPlan);
+    }
+
+    @Test
+    void findByCast_UsesMultikeyIndex() {
+        var winningPlan = winningPlan(new Document("cast", "Tom Hardy"), null, null);
+
+        assertTrue(winningPlan.contains("IXSCAN"), winningPlan);
+        assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+    }
+
+    private String winningPlan(Document filter, Document projection, Document sort) {
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(MoviesInfo.class))
+                .flatMap(collection -> {
+                    var find = collection.find(filter);
+                    if (projection != null)
+                        find = find.projection(projection);
+                    if (sort != null)
+                        find = find.sort(sort);
+                    return Mono.from(find.explain());
+                })
+                .map(explain -> explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson())
+                .block();
+    }
+}
@@ -0,0 +1,107 @@
+package com.reactivespring.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "moviesinfo.raw-read.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+class MoviesInfoRawReadIntegrationTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    MoviesInfoRepository movieInfoRepository;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        MoviesInfo movieInfo = new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15));
+        MoviesInfo movieInfo1 = new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18));
+        MoviesInfo movieInfo2 = new MoviesInfo("Amélie-2001", "Le Fabuleux Destin d'Amélie \"Poulain\"", 2001, null, LocalDate.of(2001, 4, 25));
+        movieInfoRepository.saveAll(List.of(movieInfo, movieInfo1, movieInfo2)).blockLast();
+        // $inc on a document without a version stores it as an int32
+        var darkKnight = new Query(Criteria.where("movieInfoId").is("The Dark Knight-2008"));
+        reactiveMongoTemplate.updateFirst(darkKnight, new Update().unset("version"), MoviesInfo.class).block();
+        reactiveMongoTemplate.updateFirst(darkKnight, new Update().inc("version", 1), MoviesInfo.class).block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void streamAllMovies_MatchesDtoJson() throws Exception {
+        var body = webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(expectedNdjson(movieInfoRepository.findAll().collectList().block()), new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void streamMovieInfosByYear_MatchesDtoJson() throws Exception {
+        var body = webTestClient.get()
+                .uri("/moviesInfo/get?year=2008")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(expectedNdjson(movieInfoRepository.findByYear(2008).collectList().block()), new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getAllMovies_JsonStillPaged() {
+        webTestClient.get()
+                .uri("/moviesInfo/getAllMoviesInfo?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBodyList(MoviesInfoDTO.class)
+                .hasSize(2);
+    }
+
+    private String expectedNdjson(List<MoviesInfo> moviesInfos) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (MoviesInfo moviesInfo : moviesInfos)
+            ndjson.append(objectMapper.writeValueAsString(new MoviesInfoDTO(moviesInfo))).append('\n');
+        return ndjson.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.reactivespring.integration;
+
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.exception.MoviesInfoException;
+import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.service.MoviesInfoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MoviesInfoServiceIntegrationTest {
+
+    private static final int SUBSCRIBERS = 64;
+
+    @Autowired
+    MoviesInfoService moviesInfoService;
+
+    @Autowired
+    MoviesInfoRepository movieInfoRepository;
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void addMovieInfo_Concurrent() {
+        //given
+        var moviesInfoDTO = new MoviesInfoDTO(null, "Inception", 2010, List.of("Leonardo DiCaprio", "Joseph Gordon-Levitt"), "2010-07-16");
+
+        //when
+        var outcomes = Flux.range(0, SUBSCRIBERS)
+                .flatMap(i -> moviesInfoService.addMovieInfo(new MoviesInfoDTO(null, moviesInfoDTO.getName(), moviesInfoDTO.getYear(), moviesInfoDTO.getCast(), moviesInfoDTO.getReleaseDate()))
+                        .map(saved -> "created")
+                        .onErrorResume(MoviesInfoException.class, e -> Mono.just("duplicate"))
+                        .subscribeOn(Schedulers.parallel()), SUBSCRIBERS)
+                .collectList()
+                .block();
+
+        //then
+        assert outcomes != null;
+        assertEquals(1, outcomes.stream().filter("created"::equals).count());
+        assertEquals(SUBSCRIBERS - 1, outcomes.stream().filter("duplicate"::equals).count());
+        assertEquals(1L, movieInfoRepository.count().block());
+    }
+}
@@ -1,31 +1,63 @@
 package com.reactivespring.service;
 
+import com.reactivespring.cache.MoviesInfoCache;
+import com.reactivespring.cache.MoviesInfoIdFilter;
 import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoBatchResult;
+import com.reactivespring.domain.MoviesInfoCursor;
 import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.exception.MoviesInfoConflictException;
+import com.reactivespring.exception.MoviesInfoException;
 import com.reactivespring.repository.MoviesInfoRepository;
+import com.reactivespring.snapshot.MoviesInfoSnapshot;
+import com.reactivespring.suggest.MoviesInfoTitleIndex;
+import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscription;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = MoviesInfoService.class)
 @AutoConfigureWebTestClient
+@Import({MoviesInfoCache.class, MoviesInfoIdFilter.class, MoviesInfoSnapshot.class, MoviesInfoTitleIndex.class})
 class MoviesInfoServiceTest {
 
     @Autowired
     MoviesInfoService moviesInfoService;
 
+    @Autowired
+    MoviesInfoCache moviesInfoCache;
+
     @MockBean
     MoviesInfoRepository moviesInfoRepositoryMock;
 
@@ -33,11 +65,12 @@ class MoviesInfoServiceTest {
 
     @BeforeEach
     void setUp() {
+        moviesInfoCache.invalidateAll();
         movieInfo = new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15));
         movieInfo1 = new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18));
         movieInfo2 = new MoviesInfo("The Dark Knight Rises-2012", "The Dark Knight Rises", 2012, List.of("Chritian Bale", "Tom Hardy"), LocalDate.of(2012, 7, 20));
         var movieInfos = List.of(movieInfo, movieInfo1, movieInfo2);
-        when(moviesInfoRepositoryMock.findAll()).thenReturn(Flux.fromIterable(movieInfos));
+        when(moviesInfoRepositoryMock.streamAll(anyInt())).thenReturn(Flux.fromIterable(movieInfos));
     }
 
     @Test
@@ -47,9 +80,7 @@ class MoviesInfoServiceTest {
         MoviesInfo savedMoviesInfo = moviesInfoDTO.toEntity();
 
         //when
-        when(moviesInfoRepositoryMock.findById("Inception-2010")).thenReturn(Mono.empty());
-        when(moviesInfoRepositoryMock.existsById("Inception-2010")).thenReturn(Mono.just(Boolean.FALSE));
-        when(moviesInfoRepositoryMock.save(savedMoviesInfo)).thenReturn(Mono.just(savedMoviesInfo));
+        when(moviesInfoRepositoryMock.insert(any(MoviesInfo.class))).thenReturn(Mono.just(savedMoviesInfo));
 
         //then
         moviesInfoService.addMovieInfo(moviesInfoDTO).subscribe(moviesInfo -> {
@@ -61,6 +92,41 @@ class MoviesInfoServiceTest {
         });
     }
 
+    @Test
+    void addMovieInfo_Duplicate() {
+        //given
+        MoviesInfoDTO moviesInfoDTO = new MoviesInfoDTO(null, "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), "2005-06-15");
+
+        //when
+        when(moviesInfoRepositoryMock.insert(any(MoviesInfo.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+        //then
+        StepVerifier.create(moviesInfoService.addMovieInfo(moviesInfoDTO))
+                .expectError(MoviesInfoException.class)
+                .verify();
+    }
+
+    @Test
+    void addMovieInfos() {
+        //given
+        MoviesInfoDTO inception = new MoviesInfoDTO(null, "Inception", 2010, List.of("Leonardo DiCaprio"), "2010-07-16");
+        MoviesInfoDTO batmanBegins = new MoviesInfoDTO(null, "Batman Begins", 2005, List.of("Chritian Bale"), "2005-06-15");
+        MoviesInfoDTO invalid = new MoviesInfoDTO(null, "Interstellar", 2014, List.of("Matthew McConaughey"), "07-11-2014");
+
+        //when
+        when(moviesInfoRepositoryMock.insertUnordered(anyList())).thenReturn(Mono.just(Set.of(1)));
+
+        //then
+        StepVerifier.create(moviesInfoService.addMovieInfos(Flux.just(inception, batmanBegins, invalid)))
+                .assertNext(result -> assertEquals(MoviesInfoBatchResult.Status.INVALID, result.getStatus()))
+                .assertNext(result -> assertEquals(MoviesInfoBatchResult.Status.CREATED, result.getStatus()))
+                .assertNext(result -> {
+                    assertEquals("Batman Begins-2005", result.getMovieInfoId());
+                    assertEquals(MoviesInfoBatchResult.Status.DUPLICATE, result.getStatus());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void getAllMovies() {
         moviesInfoService.getAllMovies().collectList().subscribe(moviesInfoDTOS -> {
@@ -71,6 +137,74 @@ class MoviesInfoServiceTest {
         });
     }
 
+    @Test
+    void getAllMovies_SlowSubscriberBoundsCursorDemand() {
+        //given
+        AtomicLong requested = new AtomicLong();
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong maxAhead = new AtomicLong();
+        when(moviesInfoRepositoryMock.streamAll(anyInt())).thenReturn(Flux.range(0, 20_000)
+                .map(i -> new MoviesInfo("Movie-" + i, "Movie", 2000 + i % 20, List.of("Cast"), LocalDate.of(2000, 1, 1)))
+                .doOnRequest(n -> requested.updateAndGet(r -> r + n < 0 ? Long.MAX_VALUE : r + n)));
+
+        //when
+        moviesInfoService.getAllMovies().subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(MoviesInfoDTO moviesInfoDTO) {
+                maxAhead.accumulateAndGet(requested.get() - consumed.incrementAndGet(), Math::max);
+                request(1);
+            }
+        });
+
+        //then
+        assertEquals(20_000, consumed.get());
+        assertTrue(maxAhead.get() <= 256, "cursor ran " + maxAhead.get() + " elements ahead of the subscriber");
+    }
+
+    @Test
+    void getAllMovies_Fields() {
+        //when
+        when(moviesInfoRepositoryMock.findAllAfter(isNull(), eq(0), eq(List.of("movieInfoId", "version", "incarnation", "name")))).thenReturn(Flux.just(movieInfo, movieInfo1, movieInfo2));
+
+        //then
+        StepVerifier.create(moviesInfoService.getAllMovies("name"))
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMoviesPage_DefaultPageSize() {
+        //when
+        when(moviesInfoRepositoryMock.findAllAfter(eq("Batman Begins-2005"), eq(101), anyList())).thenReturn(Flux.just(movieInfo1, movieInfo2));
+
+        //then
+        StepVerifier.create(moviesInfoService.getMoviesPage(MoviesInfoCursor.encode("Batman Begins-2005"), null, null))
+                .assertNext(page -> {
+                    assertEquals(2, page.getContent().size());
+                    assertEquals(null, page.getNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getMoviesPage_Limit() {
+        //when
+        when(moviesInfoRepositoryMock.findAllAfter(isNull(), eq(3), anyList())).thenReturn(Flux.just(movieInfo, movieInfo1, movieInfo2));
+
+        //then
+        StepVerifier.create(moviesInfoService.getMoviesPage(null, 2, null))
+                .assertNext(page -> {
+                    assertEquals(2, page.getContent().size());
+                    assertTrue(page.getNext() != null);
+                })
+                .verifyComplete();
+    }
+
     @Test
     void getMovieById() {
         //given
@@ -86,30 +220,202 @@ class MoviesInfoServiceTest {
         );
     }
 
+    @Test
+    void getMovieById_ConcurrentMissesLoadOnce() {
+        //when
+        when(moviesInfoRepositoryMock.findById("The Dark Knight-2008")).thenReturn(Mono.delay(Duration.ofMillis(100)).thenReturn(movieInfo1));
+
+        //then
+        StepVerifier.create(Flux.range(0, 16).flatMap(i -> moviesInfoService.getMovieById("The Dark Knight-2008")))
+                .expectNextCount(16)
+                .verifyComplete();
+        verify(moviesInfoRepositoryMock, times(1)).findById("The Dark Knight-2008");
+        assertEquals(15, moviesInfoCache.stats().hitCount());
+    }
+
+    @Test
+    void getMovieById_CancelledSubscriberDoesNotCancelSharedLoad() {
+        //when
+        when(moviesInfoRepositoryMock.findById("The Dark Knight-2008")).thenReturn(Mono.delay(Duration.ofMillis(100)).thenReturn(movieInfo1));
+
+        //then
+        moviesInfoService.getMovieById("The Dark Knight-2008").subscribe().dispose();
+        StepVerifier.create(moviesInfoService.getMovieById("The Dark Knight-2008"))
+                .assertNext(moviesInfoDTO -> assertEquals("The Dark Knight", moviesInfoDTO.getName()))
+                .verifyComplete();
+        verify(moviesInfoRepositoryMock, times(1)).findById("The Dark Knight-2008");
+    }
+
+    @Test
+    void deleteMovieById_InvalidatesCache() {
+        //when
+        when(moviesInfoRepositoryMock.findById("Batman Begins-2005")).thenReturn(Mono.just(movieInfo), Mono.empty());
+        when(moviesInfoRepositoryMock.deleteByIdCounted("Batman Begins-2005")).thenReturn(Mono.just(1L));
+
+        //then
+        StepVerifier.create(moviesInfoService.getMovieById("Batman Begins-2005")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(moviesInfoService.deleteMovieById("Batman Begins-2005")).verifyComplete();
+        StepVerifier.create(moviesInfoService.getMovieById("Batman Begins-2005")).verifyComplete();
+        verify(moviesInfoRepositoryMock, times(2)).findById("Batman Begins-2005");
+    }
+
+    @Test
+    void updateMovieById_CancelledInvalidatesCache() {
+        //when
+        when(moviesInfoRepositoryMock.findById("Batman Begins-2005")).thenReturn(Mono.just(movieInfo));
+        when(moviesInfoRepositoryMock.updateVersioned(eq("Batman Begins-2005"), isNull(), any(Update.class))).thenReturn(Mono.never());
+
+        //then
+        StepVerifier.create(moviesInfoService.getMovieById("Batman Begins-2005")).expectNextCount(1).verifyComplete();
+        moviesInfoService.updateMovieById("Batman Begins-2005", new MoviesInfoDTO(movieInfo)).subscribe().dispose();
+        StepVerifier.create(moviesInfoService.getMovieById("Batman Begins-2005")).expectNextCount(1).verifyComplete();
+        verify(moviesInfoRepositoryMock, times(2)).findById("Batman Begins-2005");
+    }
+
+    @Test
+    void deleteMovieById_CancelledInvalidatesCache() {
+        //when
+        when(moviesInfoRepositoryMock.findById("Batman Begins-2005")).thenReturn(Mono.just(movieInfo));
+        when(moviesInfoRepositoryMock.deleteByIdCounted("Batman Begins-2005")).thenReturn(Mono.never());
+
+        //then
+        StepVerifier.create(moviesInfoService.getMovieById("Batman Begins-2005")).expectNextCount(1).verifyComplete();
+        moviesInfoService.deleteMovieById("Batman Begins-2005").subscribe().dispose();
+        StepVerifier.create(moviesInfoService.getMovieById("Batman Begins-2005")).expectNextCount(1).verifyComplete();
+        verify(moviesInfoRepositoryMock, times(2)).findById("Batman Begins-2005");
+    }
+
+    @Test
+    void getMovieInfosByYearRange_SnapshotDisabledReadsMongo() {
+        //when
+        when(moviesInfoRepositoryMock.streamByYearRange(eq(2005), eq(2008), anyInt())).thenReturn(Flux.just(movieInfo, movieInfo1));
+
+        //then
+        StepVerifier.create(moviesInfoService.getMovieInfosByYearRange(2005, 2008))
+                .assertNext(moviesInfoDTO -> assertEquals("Batman Begins", moviesInfoDTO.getName()))
+                .assertNext(moviesInfoDTO -> assertEquals("The Dark Knight", moviesInfoDTO.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfosByCastMember_SnapshotDisabledReadsMongo() {
+        //when
+        when(moviesInfoRepositoryMock.streamByCastMember(eq("Tom Hardy"), anyInt())).thenReturn(Flux.just(movieInfo2));
+
+        //then
+        StepVerifier.create(moviesInfoService.getMovieInfosByCastMember("Tom Hardy"))
+                .assertNext(moviesInfoDTO -> assertEquals("The Dark Knight Rises", moviesInfoDTO.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void suggest_IndexNotLoadedReadsMongo() {
+        //when
+        when(moviesInfoRepositoryMock.findByNameWordPrefix("dark", 10)).thenReturn(Flux.just(movieInfo2, movieInfo1));
+
+        //then
+        StepVerifier.create(moviesInfoService.suggest(" dark", 10))
+                .assertNext(suggestions -> {
+                    assertEquals(2, suggestions.size());
+                    assertEquals("The Dark Knight Rises-2012", suggestions.get(0).getMovieInfoId());
+                    assertEquals(2008, suggestions.get(1).getYear());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void suggest_Blank() {
+        //then
+        StepVerifier.create(moviesInfoService.suggest(" - ", 10))
+                .expectError(MoviesInfoException.class)
+                .verify();
+    }
+
     @Test
     void updateMovieById() {
         //given
         MoviesInfoDTO moviesInfoDTO = new MoviesInfoDTO("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), "2005-06-15");
         MoviesInfo updatedMoviesInfo = moviesInfoDTO.toEntity();
+        updatedMoviesInfo.setVersion(1L);
 
         //when
-        when(moviesInfoRepositoryMock.findById("Batman Begins-2005")).thenReturn(Mono.just(movieInfo));
-        when(moviesInfoRepositoryMock.save(updatedMoviesInfo)).thenReturn(Mono.just(updatedMoviesInfo));
+        when(moviesInfoRepositoryMock.updateVersioned(eq("Batman Begins-2005"), isNull(), any(Update.class))).thenReturn(Mono.just(updatedMoviesInfo));
 
         //then
-        moviesInfoService.updateMovieById("Batman Begins-2005", moviesInfoDTO).subscribe(moviesInfo -> {
-            assertEquals(moviesInfoDTO.getMovieInfoIdForVerification(), moviesInfo.getMovieInfoIdForVerification());
-            assertEquals(moviesInfoDTO.getName(), moviesInfo.getName());
-            assertEquals(moviesInfoDTO.getYear(), moviesInfo.getYear());
-            assertEquals(moviesInfoDTO.getCast(), moviesInfo.getCast());
-            assertEquals(moviesInfoDTO.getReleaseDate(), moviesInfo.getReleaseDate());
-        });
+        StepVerifier.create(moviesInfoService.updateMovieById("Batman Begins-2005", moviesInfoDTO))
+                .assertNext(moviesInfo -> {
+                    assertEquals(moviesInfoDTO.getMovieInfoIdForVerification(), moviesInfo.getMovieInfoIdForVerification());
+                    assertEquals(moviesInfoDTO.getName(), moviesInfo.getName());
+                    assertEquals(moviesInfoDTO.getYear(), moviesInfo.getYear());
+                    assertEquals(moviesInfoDTO.getCast(), moviesInfo.getCast());
+                    assertEquals(moviesInfoDTO.getReleaseDate(), moviesInfo.getReleaseDate());
+                    assertEquals(1L, moviesInfo.getVersion());
+                })
+                .verifyComplete();
+        verify(moviesInfoRepositoryMock, never()).save(any(MoviesInfo.class));
+    }
+
+    @Test
+    void patchMovieById_SetsOnlyPresentFields() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setYear(2006);
+        patch.setVersion(0L);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        //when
+        when(moviesInfoRepositoryMock.updateVersioned(eq("Batman Begins-2005"), eq(0L), update.capture())).thenReturn(Mono.just(movieInfo));
+
+        //then
+        StepVerifier.create(moviesInfoService.patchMovieById("Batman Begins-2005", patch)).expectNextCount(1).verifyComplete();
+        assertEquals(Set.of("year"), update.getValue().getUpdateObject().get("$set", Document.class).keySet());
+    }
+
+    @Test
+    void patchMovieById_Empty() {
+        //then
+        StepVerifier.create(moviesInfoService.patchMovieById("Batman Begins-2005", new MoviesInfoDTO()))
+                .expectError(MoviesInfoException.class)
+                .verify();
+        verify(moviesInfoRepositoryMock, never()).updateVersioned(any(), any(), any());
+    }
+
+    @Test
+    void patchMovieById_StaleVersion() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setName("Batman Begins (Remastered)");
+        patch.setVersion(3L);
+
+        //when
+        when(moviesInfoRepositoryMock.updateVersioned(eq("Batman Begins-2005"), eq(3L), any(Update.class))).thenReturn(Mono.empty());
+        when(moviesInfoRepositoryMock.existsById("Batman Begins-2005")).thenReturn(Mono.just(true));
+
+        //then
+        StepVerifier.create(moviesInfoService.patchMovieById("Batman Begins-2005", patch))
+                .expectError(MoviesInfoConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void patchMovieById_NotExisting() {
+        //given
+        MoviesInfoDTO patch = new MoviesInfoDTO();
+        patch.setName("Batman Begins (Remastered)");
+        patch.setVersion(3L);
+
+        //when
+        when(moviesInfoRepositoryMock.updateVersioned(eq("Batman Begins-2005"), eq(3L), any(Update.class))).thenReturn(Mono.empty());
+        when(moviesInfoRepositoryMock.existsById("Batman Begins-2005")).thenReturn(Mono.just(false));
+
+        //then
+        StepVerifier.create(moviesInfoService.patchMovieById("Batman Begins-2005", patch)).verifyComplete();
     }
 
     @Test
     void deleteMovieById() {
         //when
-        when(moviesInfoRepositoryMock.deleteById("Batman Begins-2005")).thenReturn(Mono.empty());
+        when(moviesInfoRepositoryMock.deleteByIdCounted("Batman Begins-2005")).thenReturn(Mono.just(1L));
 
         //then
         moviesInfoService.deleteMovieById("Batman Begins-2005").subscribe(Assertions::assertNull);
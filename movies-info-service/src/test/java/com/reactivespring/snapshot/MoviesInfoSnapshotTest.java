@@ -0,0 +1,158 @@
+package com.reactivespring.snapshot;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MoviesInfoSnapshotTest {
+
+    MoviesInfoRepository moviesInfoRepositoryMock;
+    MoviesInfoSnapshot moviesInfoSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        moviesInfoRepositoryMock = mock(MoviesInfoRepository.class);
+        moviesInfoSnapshot = new MoviesInfoSnapshot(moviesInfoRepositoryMock, true, 256, 4096);
+        var movieInfos = List.of(
+                new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), LocalDate.of(2008, 7, 18), 2L),
+                new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale", "Michael Cane"), LocalDate.of(2005, 6, 15), 0L),
+                new MoviesInfo("The Dark Knight Rises-2012", "The Dark Knight Rises", 2012, List.of("Chritian Bale", "Tom Hardy"), LocalDate.of(2012, 7, 20), 1L),
+                new MoviesInfo("The Prestige-2006", "The Prestige", 2006, null, null, null));
+        when(moviesInfoRepositoryMock.streamAll(anyInt())).thenReturn(Flux.fromIterable(movieInfos));
+        moviesInfoSnapshot.load().block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesInfoSnapshot.close();
+    }
+
+    @Test
+    void findByYear() {
+        //when
+        List<MoviesInfoDTO> moviesInfoDTOs = moviesInfoSnapshot.findByYear(2008);
+
+        //then
+        assertTrue(moviesInfoSnapshot.isReady());
+        assertEquals(1, moviesInfoDTOs.size());
+        assertEquals(new MoviesInfoDTO("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale", "HeathLedger"), "2008-07-18", 2L),
+                moviesInfoDTOs.get(0));
+    }
+
+    @Test
+    void findByYearRange() {
+        //when
+        List<MoviesInfoDTO> moviesInfoDTOs = moviesInfoSnapshot.findByYearRange(2005, 2008);
+
+        //then
+        assertEquals(List.of("Batman Begins-2005", "The Prestige-2006", "The Dark Knight-2008"), ids(moviesInfoDTOs));
+        assertEquals(null, moviesInfoDTOs.get(1).getCast());
+        assertEquals(null, moviesInfoDTOs.get(1).getReleaseDate());
+        assertEquals(null, moviesInfoDTOs.get(1).getVersion());
+    }
+
+    @Test
+    void findByCastMember() {
+        //then
+        assertEquals(List.of("Batman Begins-2005", "The Dark Knight-2008", "The Dark Knight Rises-2012"),
+                ids(moviesInfoSnapshot.findByCastMember("Chritian Bale")));
+        assertEquals(List.of("The Dark Knight Rises-2012"), ids(moviesInfoSnapshot.findByCastMember("Tom Hardy")));
+        assertTrue(moviesInfoSnapshot.findByCastMember("Michael Caine").isEmpty());
+    }
+
+    @Test
+    void writesShadowTheBase() {
+        //when
+        moviesInfoSnapshot.onSaved(new MoviesInfoDTO("Inception-2010", "Inception", 2010, List.of("Leonardo DiCaprio", "Tom Hardy"), "2010-07-16", 0L));
+        moviesInfoSnapshot.onSaved(new MoviesInfoDTO("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale"), "2008-07-18", 3L));
+        moviesInfoSnapshot.onDeleted("The Dark Knight Rises-2012");
+
+        //then
+        assertEquals(List.of("The Dark Knight-2008", "Inception-2010"), ids(moviesInfoSnapshot.findByYearRange(2007, 2020)));
+        assertEquals(List.of("Inception-2010"), ids(moviesInfoSnapshot.findByCastMember("Tom Hardy")));
+        assertEquals(List.of("Batman Begins-2005", "The Dark Knight-2008"), ids(moviesInfoSnapshot.findByCastMember("Chritian Bale")));
+        assertEquals(3, moviesInfoSnapshot.overlaySize());
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewer() {
+        //when
+        moviesInfoSnapshot.onSaved(new MoviesInfoDTO("Batman Begins-2005", "Batman Begins", 2005, null, "2005-06-15", 2L));
+        moviesInfoSnapshot.onSaved(new MoviesInfoDTO("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale"), "2005-06-15", 1L));
+
+        //then
+        assertEquals(null, moviesInfoSnapshot.findByYear(2005).get(0).getCast());
+    }
+
+    @Test
+    void compact() {
+        //given
+        moviesInfoSnapshot.onSaved(new MoviesInfoDTO("Inception-2010", "Inception", 2010, List.of("Leonardo DiCaprio", "Tom Hardy"), "2010-07-16", 0L));
+        moviesInfoSnapshot.onDeleted("Batman Begins-2005");
+
+        //when
+        moviesInfoSnapshot.compact().block();
+
+        //then
+        assertEquals(0, moviesInfoSnapshot.overlaySize());
+        assertEquals(List.of("The Prestige-2006", "The Dark Knight-2008", "Inception-2010", "The Dark Knight Rises-2012"),
+                ids(moviesInfoSnapshot.findByYearRange(0, Integer.MAX_VALUE)));
+        assertEquals(List.of("Inception-2010", "The Dark Knight Rises-2012"), ids(moviesInfoSnapshot.findByCastMember("Tom Hardy")));
+        assertTrue(moviesInfoSnapshot.estimatedBytes() > 0);
+    }
+
+    @Test
+    void onDeletedAll() {
+        //when
+        moviesInfoSnapshot.onDeletedAll();
+
+        //then
+        assertTrue(moviesInfoSnapshot.findByYearRange(2000, 2020).isEmpty());
+        assertEquals(MoviesInfoColumns.EMPTY.estimatedBytes, moviesInfoSnapshot.estimatedBytes());
+    }
+
+    @Test
+    void onWriteFailed_ReloadsTheMovieInfo() {
+        //given
+        when(moviesInfoRepositoryMock.findById("The Dark Knight-2008")).thenReturn(Mono.empty());
+
+        //when
+        moviesInfoSnapshot.onWriteFailed("The Dark Knight-2008");
+
+        //then
+        assertTrue(moviesInfoSnapshot.findByYear(2008).isEmpty());
+    }
+
+    @Test
+    void disabled() {
+        //given
+        var disabled = new MoviesInfoSnapshot(moviesInfoRepositoryMock, false, 256, 4096);
+
+        //when
+        disabled.onSaved(new MoviesInfoDTO("Inception-2010", "Inception", 2010, null, "2010-07-16", 0L));
+
+        //then
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.overlaySize());
+        disabled.close();
+    }
+
+    private static List<String> ids(List<MoviesInfoDTO> moviesInfoDTOs) {
+        return moviesInfoDTOs.stream().map(MoviesInfoDTO::getMovieInfoId).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.reactivespring.suggest;
+
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.domain.MoviesInfoDTO;
+import com.reactivespring.domain.MoviesInfoSuggestion;
+import com.reactivespring.repository.MoviesInfoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MoviesInfoTitleIndexTest {
+
+    MoviesInfoRepository moviesInfoRepositoryMock;
+    MoviesInfoTitleIndex moviesInfoTitleIndex;
+
+    @BeforeEach
+    void setUp() {
+        moviesInfoRepositoryMock = mock(MoviesInfoRepository.class);
+        moviesInfoTitleIndex = new MoviesInfoTitleIndex(moviesInfoRepositoryMock, true, 256, 1024);
+        var movieInfos = List.of(
+                new MoviesInfo("Batman Begins-2005", "Batman Begins", 2005, List.of("Chritian Bale"), LocalDate.of(2005, 6, 15)),
+                new MoviesInfo("The Dark Knight-2008", "The Dark Knight", 2008, List.of("Chritian Bale"), LocalDate.of(2008, 7, 18)),
+                new MoviesInfo("The Dark Knight Rises-2012", "The Dark Knight Rises", 2012, List.of("Chritian Bale"), LocalDate.of(2012, 7, 20)),
+                new MoviesInfo("Amélie-2001", "Le Fabuleux Destin d'Amélie Poulain", 2001, null, LocalDate.of(2001, 4, 25)),
+                new MoviesInfo("Dark City-1998", "Dark City", 1998, null, null));
+        when(moviesInfoRepositoryMock.streamAll(anyInt())).thenReturn(Flux.fromIterable(movieInfos));
+        moviesInfoTitleIndex.load().block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        moviesInfoTitleIndex.close();
+    }
+
+    @Test
+    void normalize() {
+        assertEquals("le fabuleux destin d amelie poulain", MoviesInfoTitleIndex.normalize("  Le Fabuleux Destin d'Amélie  Poulain!"));
+    }
+
+    @Test
+    void suggest_WordPrefixNewestFirst() {
+        //when
+        List<MoviesInfoSuggestion> suggestions = moviesInfoTitleIndex.suggest("Dark", 10);
+
+        //then
+        assertTrue(moviesInfoTitleIndex.isReady());
+        assertEquals(List.of("The Dark Knight Rises-2012", "The Dark Knight-2008", "Dark City-1998"), ids(suggestions));
+        assertEquals(new MoviesInfoSuggestion("The Dark Knight Rises-2012", "The Dark Knight Rises", 2012), suggestions.get(0));
+    }
+
+    @Test
+    void suggest_SeveralWords() {
+        //then
+        assertEquals(List.of("The Dark Knight Rises-2012", "The Dark Knight-2008"), ids(moviesInfoTitleIndex.suggest("dark kn", 10)));
+        assertEquals(List.of("The Dark Knight Rises-2012", "The Dark Knight-2008"), ids(moviesInfoTitleIndex.suggest("the dark knight", 10)));
+    }
+
+    @Test
+    void suggest_FoldsAccentsAndPunctuation() {
+        //then
+        assertEquals(List.of("Amélie-2001"), ids(moviesInfoTitleIndex.suggest("AME", 10)));
+        assertEquals(List.of("Amélie-2001"), ids(moviesInfoTitleIndex.suggest("d'amél", 10)));
+    }
+
+    @Test
+    void suggest_Limit() {
+        //then
+        assertEquals(List.of("The Dark Knight Rises-2012"), ids(moviesInfoTitleIndex.suggest("dark", 1)));
+        assertTrue(moviesInfoTitleIndex.suggest("knightfall", 10).isEmpty());
+    }
+
+    @Test
+    void writesShadowTheBase() {
+        //when
+        moviesInfoTitleIndex.onSaved(new MoviesInfoDTO("Dark Waters-2019", "Dark Waters", 2019, null, "2019-11-22", 0L));
+        moviesInfoTitleIndex.onSaved(new MoviesInfoDTO("Dark City-1998", "Dark City", 2020, null, null, 1L));
+        moviesInfoTitleIndex.onDeleted("The Dark Knight Rises-2012");
+
+        //then
+        assertEquals(List.of("Dark City-1998", "Dark Waters-2019", "The Dark Knight-2008"), ids(moviesInfoTitleIndex.suggest("dark", 3)));
+        assertEquals(3, moviesInfoTitleIndex.overlaySize());
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewer() {
+        //when
+        moviesInfoTitleIndex.onSaved(new MoviesInfoDTO("Dark City-1998", "Dark City: Director's Cut", 1998, null, null, 2L));
+        moviesInfoTitleIndex.onSaved(new MoviesInfoDTO("Dark City-1998", "Dark City", 1998, null, null, 1L));
+
+        //then
+        assertEquals("Dark City: Director's Cut", moviesInfoTitleIndex.suggest("city", 10).get(0).getName());
+    }
+
+    @Test
+    void rebuild() {
+        //given
+        moviesInfoTitleIndex.onSaved(new MoviesInfoDTO("Dark Waters-2019", "Dark Waters", 2019, null, "2019-11-22", 0L));
+        moviesInfoTitleIndex.onDeleted("Batman Begins-2005");
+
+        //when
+        moviesInfoTitleIndex.rebuild().block();
+
+        //then
+        assertEquals(0, moviesInfoTitleIndex.overlaySize());
+        assertEquals(List.of("Dark Waters-2019", "The Dark Knight Rises-2012", "The Dark Knight-2008", "Dark City-1998"),
+                ids(moviesInfoTitleIndex.suggest("dark", 10)));
+        assertTrue(moviesInfoTitleIndex.suggest("batman", 10).isEmpty());
+        assertTrue(moviesInfoTitleIndex.estimatedBytes() > 0);
+    }
+
+    @Test
+    void onDeletedAll() {
+        //when
+        moviesInfoTitleIndex.onDeletedAll();
+
+        //then
+        assertTrue(moviesInfoTitleIndex.suggest("dark", 10).isEmpty());
+    }
+
+    private static List<String> ids(List<MoviesInfoSuggestion> suggestions) {
+        return suggestions.stream().map(MoviesInfoSuggestion::getMovieInfoId).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.reactivespring.tracing;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveTracerTest {
+
+    List<PipelineTrace> traces = new CopyOnWriteArrayList<>();
+    ReactiveTracer reactiveTracer = new ReactiveTracer(traces::add);
+
+    @Test
+    void sampledPipelineReportsOnce() {
+        //when
+        StepVerifier.create(Flux.just(1, 2, 3)
+                        .transform(reactiveTracer.flux("numbers"))
+                        .contextWrite(context -> context.put(TraceContext.KEY, new TraceContext("abc", true))))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        //then
+        assertEquals(1, traces.size());
+        var trace = traces.get(0);
+        assertEquals("abc", trace.traceId());
+        assertEquals("numbers", trace.pipeline());
+        assertEquals(SignalType.ON_COMPLETE, trace.signal());
+        assertEquals(3, trace.elements());
+        assertTrue(trace.firstElementNanos() >= 0);
+    }
+
+    @Test
+    void sampledPipelineReportsErrors() {
+        //when
+        StepVerifier.create(Mono.error(new IllegalStateException("boom"))
+                        .transform(reactiveTracer.mono("failing"))
+                        .contextWrite(context -> context.put(TraceContext.KEY, new TraceContext("abc", true))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        //then
+        assertEquals(SignalType.ON_ERROR, traces.get(0).signal());
+        assertEquals(0, traces.get(0).elements());
+        assertEquals(-1, traces.get(0).firstElementNanos());
+        assertTrue(traces.get(0).error() instanceof IllegalStateException);
+    }
+
+    @Test
+    void unsampledPipelineIsNotTraced() {
+        //when
+        StepVerifier.create(Flux.just(1, 2, 3)
+                        .transform(reactiveTracer.flux("numbers"))
+                        .contextWrite(context -> context.put(TraceContext.KEY, new TraceContext("abc", false))))
+                .expectNextCount(3)
+                .verifyComplete();
+        StepVerifier.create(Mono.just(1).transform(reactiveTracer.mono("number")))
+                .expectNext(1)
+                .verifyComplete();
+
+        //then
+        assertTrue(traces.isEmpty());
+    }
+}
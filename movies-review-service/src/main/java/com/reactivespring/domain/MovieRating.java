@@ -0,0 +1,38 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Running rating aggregate of one movie, kept up to date by atomic updates on every review write so the
+ * average can be read without scanning the reviews. {@code revision} is bumped by every review write;
+ * {@code extremesRevision} is the revision {@code min}/{@code max} were last recomputed from the reviews at.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class MovieRating {
+
+    @Id
+    private String movieInfoId;
+    private long count;
+    private double sum;
+    private Double min;
+    private Double max;
+    private long revision;
+    private long extremesRevision;
+
+    public static MovieRating empty(String movieInfoId) {
+        return new MovieRating(movieInfoId, 0, 0, null, null, 0, 0);
+    }
+
+    @Transient
+    public Double getAverage() {
+        return count == 0 ? null : sum / count;
+    }
+}
@@ -1,14 +1,16 @@
 package com.reactivespring.domain;
 
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.NonNull;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import javax.validation.constraints.Min;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,8 +19,13 @@ public class Review {
 
     @Id
     private String reviewId;
-    private Long movieInfoId;
+    @NotBlank(message = "rating.movieInfoId : must not be blank")
+    @Indexed(name = "movieInfoId")
+    private String movieInfoId;
     private String comment;
-    //@Min(value = 0L, message = "rating.negative : please pass a non-negative value")
+    @NotNull(message = "rating.rating : must not be null")
+    @Min(value = 0L, message = "rating.negative : please pass a non-negative value")
     private Double rating;
+    @Version
+    private Long version;
 }
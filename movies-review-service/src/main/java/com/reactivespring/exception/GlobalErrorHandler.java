@@ -0,0 +1,34 @@
+package com.reactivespring.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@Order(-2)
+@Slf4j
+public class GlobalErrorHandler implements ErrorWebExceptionHandler {
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        HttpStatus status;
+        if (ex instanceof ReviewDataException)
+            status = HttpStatus.BAD_REQUEST;
+        else if (ex instanceof ReviewNotFoundException)
+            status = HttpStatus.NOT_FOUND;
+        else
+            return Mono.error(ex);
+
+        log.error("Exception message is {} ", ex.getMessage());
+        var response = exchange.getResponse();
+        response.setStatusCode(status);
+        var errorMessage = response.bufferFactory().wrap(String.valueOf(ex.getMessage()).getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(errorMessage));
+    }
+}
@@ -0,0 +1,137 @@
+package com.reactivespring.handler;
+
+import com.reactivespring.domain.MovieRating;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewNotFoundException;
+import com.reactivespring.repository.MovieRatingRepository;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ReviewsHandler {
+
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    private static final int MAX_MOVIE_INFO_IDS = 500;
+
+    ReviewReactiveRepository reviewReactiveRepository;
+    MovieRatingRepository movieRatingRepository;
+    Validator validator;
+
+    public ReviewsHandler(ReviewReactiveRepository reviewReactiveRepository, MovieRatingRepository movieRatingRepository, Validator validator) {
+        this.reviewReactiveRepository = reviewReactiveRepository;
+        this.movieRatingRepository = movieRatingRepository;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> addReview(ServerRequest request) {
+        return request.bodyToMono(Review.class)
+                .doOnNext(this::validate)
+                .doOnNext(review -> review.setReviewId(null))
+                .flatMap(reviewReactiveRepository::insert)
+                .flatMap(review -> movieRatingRepository.addRating(review.getMovieInfoId(), review.getRating()).thenReturn(review))
+                .flatMap(review -> ServerResponse.status(HttpStatus.CREATED).bodyValue(review));
+    }
+
+    /**
+     * {@code movieInfoIds} is repeated once per movie and answered with a single {@code $in} query, so a caller
+     * batching lookups for many movies costs one round trip instead of one per movie. Ids are taken as sent, since
+     * titles may contain commas.
+     */
+    public Mono<ServerResponse> getReviews(ServerRequest request) {
+        var movieInfoIds = request.queryParams().get("movieInfoIds");
+        if (movieInfoIds != null) {
+            return Mono.fromCallable(() -> parseMovieInfoIds(movieInfoIds))
+                    .flatMap(ids -> ServerResponse.ok().body(reviewReactiveRepository.findByMovieInfoIdIn(ids), Review.class));
+        }
+        Flux<Review> reviews = request.queryParam("movieInfoId")
+                .map(reviewReactiveRepository::findReviewsByMovieInfoId)
+                .orElseGet(reviewReactiveRepository::findAll);
+        return ServerResponse.ok().body(reviews, Review.class);
+    }
+
+    private Set<String> parseMovieInfoIds(List<String> movieInfoIds) {
+        var ids = movieInfoIds.stream()
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty() || ids.size() > MAX_MOVIE_INFO_IDS) {
+            throw new ReviewDataException("movieInfoIds : pass between 1 and " + MAX_MOVIE_INFO_IDS + " ids");
+        }
+        return ids;
+    }
+
+    /**
+     * Reviews are versioned, so two concurrent updates of the same review cannot both apply their rating delta
+     * from the same old rating; the loser re-reads the review and retries.
+     */
+    public Mono<ServerResponse> updateReview(ServerRequest request) {
+        String reviewId = request.pathVariable("id");
+        return request.bodyToMono(Review.class)
+                .flatMap(review -> Mono.defer(() -> updateReview(reviewId, review))
+                        .retryWhen(Retry.max(MAX_UPDATE_ATTEMPTS).filter(OptimisticLockingFailureException.class::isInstance)))
+                .flatMap(savedReview -> ServerResponse.ok().bodyValue(savedReview));
+    }
+
+    private Mono<Review> updateReview(String reviewId, Review review) {
+        return reviewReactiveRepository.findById(reviewId)
+                .switchIfEmpty(Mono.error(new ReviewNotFoundException("Review not found for the given Review Id " + reviewId)))
+                .flatMap(existingReview -> {
+                    review.setMovieInfoId(existingReview.getMovieInfoId());
+                    validate(review);
+                    double oldRating = existingReview.getRating();
+                    existingReview.setComment(review.getComment());
+                    existingReview.setRating(review.getRating());
+                    return reviewReactiveRepository.save(existingReview)
+                            .flatMap(saved -> movieRatingRepository.replaceRating(saved.getMovieInfoId(), oldRating, saved.getRating())
+                                    .thenReturn(saved));
+                });
+    }
+
+    /**
+     * Only the request that actually deleted the review removes its rating from the aggregate.
+     */
+    public Mono<ServerResponse> deleteReview(ServerRequest request) {
+        String reviewId = request.pathVariable("id");
+        return reviewReactiveRepository.findById(reviewId)
+                .switchIfEmpty(Mono.error(new ReviewNotFoundException("Review not found for the given Review Id " + reviewId)))
+                .flatMap(review -> reviewReactiveRepository.deleteByReviewId(reviewId)
+                        .filter(deleted -> deleted > 0)
+                        .flatMap(deleted -> movieRatingRepository.removeRating(review.getMovieInfoId(), review.getRating())))
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getRating(ServerRequest request) {
+        String movieInfoId = request.pathVariable("movieInfoId");
+        return movieRatingRepository.findById(movieInfoId)
+                .defaultIfEmpty(MovieRating.empty(movieInfoId))
+                .flatMap(movieRating -> ServerResponse.ok().bodyValue(movieRating));
+    }
+
+    private void validate(Review review) {
+        var constraintViolations = validator.validate(review);
+        if (!constraintViolations.isEmpty()) {
+            log.debug("constraintViolations : {} ", constraintViolations);
+            var errorMessage = constraintViolations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(","));
+            throw new ReviewDataException(errorMessage);
+        }
+    }
+}
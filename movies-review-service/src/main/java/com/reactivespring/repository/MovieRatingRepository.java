@@ -0,0 +1,7 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.MovieRating;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface MovieRatingRepository extends ReactiveMongoRepository<MovieRating, String>, MovieRatingRepositoryCustom {
+}
@@ -0,0 +1,22 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.MovieRating;
+import reactor.core.publisher.Mono;
+
+public interface MovieRatingRepositoryCustom {
+
+    /**
+     * Atomically folds a new rating into the movie's aggregate, creating the aggregate on the first review.
+     */
+    Mono<MovieRating> addRating(String movieInfoId, double rating);
+
+    /**
+     * Atomically replaces {@code oldRating} with {@code newRating} in the movie's aggregate.
+     */
+    Mono<MovieRating> replaceRating(String movieInfoId, double oldRating, double newRating);
+
+    /**
+     * Atomically removes a rating from the movie's aggregate.
+     */
+    Mono<MovieRating> removeRating(String movieInfoId, double rating);
+}
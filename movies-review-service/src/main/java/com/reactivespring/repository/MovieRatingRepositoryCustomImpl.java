@@ -0,0 +1,116 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.MovieRating;
+import com.reactivespring.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
+public class MovieRatingRepositoryCustomImpl implements MovieRatingRepositoryCustom {
+
+    private static final int MAX_RECOMPUTE_ATTEMPTS = 100;
+
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public MovieRatingRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<MovieRating> addRating(String movieInfoId, double rating) {
+        Update update = new Update()
+                .inc("count", 1)
+                .inc("sum", rating)
+                .min("min", rating)
+                .max("max", rating)
+                .inc("revision", 1);
+        // two first reviews racing to create the aggregate can collide on _id; the loser simply updates
+        return modify(movieInfoId, update, true)
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance));
+    }
+
+    @Override
+    public Mono<MovieRating> replaceRating(String movieInfoId, double oldRating, double newRating) {
+        Update update = new Update()
+                .inc("sum", newRating - oldRating)
+                .min("min", newRating)
+                .max("max", newRating)
+                .inc("revision", 1);
+        return modify(movieInfoId, update, false)
+                .flatMap(movieRating -> oldRating != newRating && isExtreme(movieRating, oldRating)
+                        ? recomputeExtremes(movieInfoId, movieRating.getRevision(), MAX_RECOMPUTE_ATTEMPTS)
+                        : Mono.just(movieRating));
+    }
+
+    @Override
+    public Mono<MovieRating> removeRating(String movieInfoId, double rating) {
+        Update update = new Update()
+                .inc("count", -1)
+                .inc("sum", -rating)
+                .inc("revision", 1);
+        return modify(movieInfoId, update, false)
+                .flatMap(movieRating -> isExtreme(movieRating, rating)
+                        ? recomputeExtremes(movieInfoId, movieRating.getRevision(), MAX_RECOMPUTE_ATTEMPTS)
+                        : Mono.just(movieRating));
+    }
+
+    private Mono<MovieRating> modify(String movieInfoId, Update update, boolean upsert) {
+        return reactiveMongoTemplate.findAndModify(query(where("movieInfoId").is(movieInfoId)), update,
+                FindAndModifyOptions.options().upsert(upsert).returnNew(true), MovieRating.class);
+    }
+
+    private static boolean isExtreme(MovieRating movieRating, double rating) {
+        return Double.valueOf(rating).equals(movieRating.getMin()) || Double.valueOf(rating).equals(movieRating.getMax());
+    }
+
+    /**
+     * min and max cannot be decremented, so when the removed rating was one of them they are recomputed from the
+     * reviews. The result is only written if no review write bumped the revision between reading it and
+     * aggregating the reviews; otherwise the recomputation starts over. Recomputations do not bump the revision,
+     * so concurrent ones never invalidate each other, and one that ran at or after {@code requiredRevision}
+     * already covers the caller's write.
+     */
+    private Mono<MovieRating> recomputeExtremes(String movieInfoId, long requiredRevision, int attemptsLeft) {
+        return reactiveMongoTemplate.findById(movieInfoId, MovieRating.class)
+                .flatMap(current -> current.getExtremesRevision() >= requiredRevision
+                        ? Mono.just(current)
+                        : reactiveMongoTemplate.aggregate(Aggregation.newAggregation(
+                                        Aggregation.match(where("movieInfoId").is(movieInfoId)),
+                                        Aggregation.group("movieInfoId").min("rating").as("min").max("rating").as("max")),
+                                Review.class, Document.class)
+                        .next()
+                        .defaultIfEmpty(new Document())
+                        .flatMap(extremes -> reactiveMongoTemplate.findAndModify(
+                                query(where("movieInfoId").is(movieInfoId).and("revision").is(current.getRevision())),
+                                extremesUpdate(extremes).set("extremesRevision", current.getRevision()),
+                                FindAndModifyOptions.options().returnNew(true), MovieRating.class))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            if (attemptsLeft > 1)
+                                return recomputeExtremes(movieInfoId, requiredRevision, attemptsLeft - 1);
+                            log.warn("Gave up recomputing rating extremes of {} after {} attempts", movieInfoId, MAX_RECOMPUTE_ATTEMPTS);
+                            return Mono.just(current);
+                        })));
+    }
+
+    /**
+     * Without reviews left min and max are unset rather than set to null: null sorts below every number, so a later
+     * {@code $min} would keep it, while a missing field is simply set by the next review.
+     */
+    private static Update extremesUpdate(Document extremes) {
+        if (extremes.get("min") == null)
+            return new Update().unset("min").unset("max");
+        return new Update()
+                .set("min", ((Number) extremes.get("min")).doubleValue())
+                .set("max", ((Number) extremes.get("max")).doubleValue());
+    }
+}
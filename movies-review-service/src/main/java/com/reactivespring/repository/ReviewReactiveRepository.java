@@ -0,0 +1,17 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReviewReactiveRepository extends ReactiveMongoRepository<Review, String> {
+
+    Flux<Review> findReviewsByMovieInfoId(String movieInfoId);
+
+    Flux<Review> findByMovieInfoIdIn(Collection<String> movieInfoIds);
+
+    Mono<Long> deleteByReviewId(String reviewId);
+}
@@ -0,0 +1,26 @@
+package com.reactivespring.router;
+
+import com.reactivespring.handler.ReviewsHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration
+public class ReviewRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> reviewsRoute(ReviewsHandler reviewsHandler) {
+        return route()
+                .nest(path("/reviews"), builder -> builder
+                        .GET("", reviewsHandler::getReviews)
+                        .POST("", reviewsHandler::addReview)
+                        .PUT("/{id}", reviewsHandler::updateReview)
+                        .DELETE("/{id}", reviewsHandler::deleteReview)
+                        .GET("/rating/{movieInfoId}", reviewsHandler::getRating))
+                .build();
+    }
+}
@@ -0,0 +1,266 @@
+package com.reactivespring.integration;
+
+import com.reactivespring.domain.MovieRating;
+import com.reactivespring.domain.Review;
+import com.reactivespring.repository.MovieRatingRepository;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+class ReviewsIntegrationTest {
+
+    private static final String REVIEWS_URL = "/reviews";
+    private static final String MOVIE_INFO_ID = "Batman Begins-2005";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    MovieRatingRepository movieRatingRepository;
+
+    @LocalServerPort
+    int port;
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll().block();
+        movieRatingRepository.deleteAll().block();
+    }
+
+    @Test
+    void addReview() {
+        //when
+        webTestClient.post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, MOVIE_INFO_ID, "Awesome Movie", 9.0, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Review.class)
+                .consumeWith(reviewEntityExchangeResult -> {
+                    var savedReview = reviewEntityExchangeResult.getResponseBody();
+                    assert savedReview != null;
+                    assert savedReview.getReviewId() != null;
+                });
+
+        //then
+        var movieRating = rating();
+        assertEquals(1, movieRating.getCount());
+        assertEquals(9.0, movieRating.getAverage());
+    }
+
+    @Test
+    void addReview_Validation() {
+        webTestClient.post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, MOVIE_INFO_ID, "Awesome Movie", -9.0, null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("rating.negative : please pass a non-negative value");
+    }
+
+    @Test
+    void getReviewsByMovieInfoId() {
+        //given
+        reviewReactiveRepository.saveAll(List.of(
+                new Review(null, MOVIE_INFO_ID, "Awesome Movie", 9.0, null),
+                new Review(null, MOVIE_INFO_ID, "Excellent Movie", 8.0, null),
+                new Review(null, "The Dark Knight-2008", "Awesome Movie", 10.0, null))).blockLast();
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL).queryParam("movieInfoId", MOVIE_INFO_ID).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewsByMovieInfoIds() {
+        //given
+        reviewReactiveRepository.saveAll(List.of(
+                new Review(null, MOVIE_INFO_ID, "Awesome Movie", 9.0, null),
+                new Review(null, "The Dark Knight-2008", "Awesome Movie", 10.0, null),
+                new Review(null, "Dark Knight Rises-2012", "Excellent Movie", 8.0, null))).blockLast();
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL).queryParam("movieInfoIds", MOVIE_INFO_ID, "The Dark Knight-2008").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewsByMovieInfoIds_CommaInTitle() {
+        //given
+        reviewReactiveRepository.saveAll(List.of(
+                new Review(null, "Crouching Tiger, Hidden Dragon-2000", "Awesome Movie", 9.0, null),
+                new Review(null, "Crouching Tiger", "Other Movie", 5.0, null),
+                new Review(null, " Hidden Dragon-2000", "Other Movie", 5.0, null))).blockLast();
+
+        //then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL).queryParam("movieInfoIds", "{movieInfoId}").build("Crouching Tiger, Hidden Dragon-2000"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Review.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void getReviewsByMovieInfoIds_Empty() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL).queryParam("movieInfoIds", "").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateReview_RecomputesExtremes() {
+        //given
+        var lowest = addReview(2.0);
+        addReview(5.0);
+        addReview(8.0);
+
+        //when
+        webTestClient.put()
+                .uri(REVIEWS_URL + "/{id}", lowest.getReviewId())
+                .bodyValue(new Review(null, null, "Better on a second watch", 6.0, null))
+                .exchange()
+                .expectStatus().isOk();
+
+        //then
+        var movieRating = rating();
+        assertEquals(3, movieRating.getCount());
+        assertEquals(19.0, movieRating.getSum());
+        assertEquals(5.0, movieRating.getMin());
+        assertEquals(8.0, movieRating.getMax());
+    }
+
+    @Test
+    void deleteReview() {
+        //given
+        addReview(2.0);
+        var highest = addReview(8.0);
+
+        //when
+        webTestClient.delete()
+                .uri(REVIEWS_URL + "/{id}", highest.getReviewId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        //then
+        var movieRating = rating();
+        assertEquals(1, movieRating.getCount());
+        assertEquals(2.0, movieRating.getMin());
+        assertEquals(2.0, movieRating.getMax());
+    }
+
+    @Test
+    void deleteReview_LastThenAddAgain() {
+        //given
+        var only = addReview(4.0);
+        webTestClient.delete()
+                .uri(REVIEWS_URL + "/{id}", only.getReviewId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        //when
+        addReview(7.0);
+
+        //then
+        var movieRating = rating();
+        assertEquals(1, movieRating.getCount());
+        assertEquals(7.0, movieRating.getMin());
+        assertEquals(7.0, movieRating.getMax());
+    }
+
+    @Test
+    void deleteReview_NotFound() {
+        webTestClient.delete()
+                .uri(REVIEWS_URL + "/{id}", "abc")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void concurrentWritesToSameMovie() {
+        //given
+        var webClient = WebClient.create("http://localhost:" + port);
+
+        //when
+        var reviews = Flux.range(1, 50)
+                .flatMap(i -> webClient.post()
+                        .uri(REVIEWS_URL)
+                        .bodyValue(new Review(null, MOVIE_INFO_ID, "Review " + i, (double) i, null))
+                        .retrieve()
+                        .bodyToMono(Review.class), 50)
+                .collectList()
+                .block();
+
+        //then
+        var movieRating = rating();
+        assertEquals(50, movieRating.getCount());
+        assertEquals(1275.0, movieRating.getSum());
+        assertEquals(1.0, movieRating.getMin());
+        assertEquals(50.0, movieRating.getMax());
+
+        //when
+        Flux.fromIterable(reviews)
+                .flatMap(review -> webClient.delete()
+                        .uri(REVIEWS_URL + "/{id}", review.getReviewId())
+                        .retrieve()
+                        .toBodilessEntity(), 50)
+                .blockLast();
+
+        //then
+        movieRating = rating();
+        assertEquals(0, movieRating.getCount());
+        assertEquals(0.0, movieRating.getSum());
+        assertNull(movieRating.getMin());
+        assertNull(movieRating.getMax());
+    }
+
+    private Review addReview(double rating) {
+        return webTestClient.post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, MOVIE_INFO_ID, "Review", rating, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Review.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private MovieRating rating() {
+        return webTestClient.get()
+                .uri(REVIEWS_URL + "/rating/{movieInfoId}", MOVIE_INFO_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(MovieRating.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,92 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.util.BatchLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Loads the reviews of a 50 movie page against a simulated review service that serves 8 requests at a time, each
+ * costing a fixed round trip plus a small per-id query cost. Run with {@code ./gradlew jmh}; compare the sample
+ * time percentiles (page latency) and the throughput (pages per second) across batching windows, with
+ * {@code unbatched} as the baseline of one request per movie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReviewsBatchLoaderBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long PER_ID_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    @Param({"1", "5", "20"})
+    public int windowMillis;
+
+    @Param({"25", "50", "100"})
+    public int maxBatchSize;
+
+    Scheduler reviewService;
+    BatchLoader<String, List<String>> batchLoader;
+    List<String> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reviewService = Schedulers.newParallel("review-service", 8);
+        batchLoader = new BatchLoader<>("benchmark", this::fetch, maxBatchSize, Duration.ofMillis(windowMillis), 8);
+        page = IntStream.range(0, PAGE_SIZE).mapToObj(i -> "movie-" + i).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batchLoader.dispose();
+        reviewService.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<List<String>> batched() {
+        return Flux.fromIterable(page)
+                .flatMapSequential(batchLoader::load)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<List<String>> unbatched() {
+        return Flux.fromIterable(page)
+                .flatMapSequential(id -> fetch(List.of(id)).map(reviews -> reviews.get(id)))
+                .collectList()
+                .block();
+    }
+
+    private Mono<Map<String, List<String>>> fetch(List<String> movieInfoIds) {
+        return Mono.fromCallable(() -> {
+                    LockSupport.parkNanos(ROUND_TRIP_NANOS + PER_ID_NANOS * movieInfoIds.size());
+                    return movieInfoIds.stream().collect(Collectors.toMap(Function.identity(), id -> List.of(id + "-review")));
+                })
+                .subscribeOn(reviewService);
+    }
+}
@@ -0,0 +1,60 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.domain.MoviesInfo;
+import com.reactivespring.exception.DownstreamServerException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class MoviesInfoRestClient {
+
+    WebClient webClient;
+    DownstreamClientProperties properties;
+
+    public MoviesInfoRestClient(@Qualifier("moviesInfoWebClient") WebClient webClient, DownstreamClientProperties properties) {
+        this.webClient = webClient;
+        this.properties = properties;
+    }
+
+    public Mono<MoviesInfo> retrieveMovieInfo(String movieId) {
+        return webClient.get()
+                .uri(properties.getMoviesInfoUrl() + "/get/{movieId}", movieId)
+                .accept(properties.getMoviesInfoMediaType())
+                .retrieve()
+                .onStatus(HttpStatus.NOT_FOUND::equals, clientResponse -> Mono.error(
+                        new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : " + movieId, HttpStatus.NOT_FOUND.value())))
+                .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new MoviesInfoClientException(body, clientResponse.statusCode().value())))
+                .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new DownstreamServerException("Server Exception in MoviesInfoService " + body)))
+                .bodyToMono(MoviesInfo.class)
+                .timeout(properties.getCallTimeout());
+    }
+
+    /**
+     * First page of the movie infos released in {@code year}, at most {@code limit} of them.
+     */
+    public Flux<MoviesInfo> retrieveMovieInfosByYear(int year, int limit) {
+        return webClient.get()
+                .uri(properties.getMoviesInfoUrl() + "/get?year={year}&limit={limit}", year, limit)
+                .accept(properties.getMoviesInfoMediaType())
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new MoviesInfoClientException(body, clientResponse.statusCode().value())))
+                .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new DownstreamServerException("Server Exception in MoviesInfoService " + body)))
+                .bodyToFlux(MoviesInfo.class)
+                .timeout(properties.getCallTimeout());
+    }
+}
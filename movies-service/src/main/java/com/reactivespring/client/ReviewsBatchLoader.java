@@ -0,0 +1,66 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.util.BatchLoader;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Turns per-movie review lookups from concurrent requests into one {@code movieInfoIds} call to
+ * movies-review-service per batching window.
+ * <p>
+ * Reviews are optional to a movie: when movies-review-service fails, is over its concurrency limit, or the
+ * {@code reviews} circuit breaker is open, lookups degrade to an empty review list instead of failing the
+ * whole response.
+ */
+@Component
+@Slf4j
+public class ReviewsBatchLoader implements MeterBinder, DisposableBean {
+
+    static final String CIRCUIT_BREAKER = "reviews";
+
+    BatchLoader<String, List<Review>> loader;
+
+    public ReviewsBatchLoader(ReviewsRestClient reviewsRestClient, DownstreamClientProperties properties,
+                              CircuitBreakerRegistry circuitBreakerRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER);
+        this.loader = new BatchLoader<>("reviews",
+                movieInfoIds -> Mono.defer(() -> reviewsRestClient.retrieveReviews(movieInfoIds)
+                                .collect(Collectors.groupingBy(Review::getMovieInfoId)))
+                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker)),
+                properties.getReviewsBatchSize(),
+                properties.getReviewsBatchWindow(),
+                properties.getReviewsBatchConcurrency());
+    }
+
+    public Mono<List<Review>> load(String movieInfoId) {
+        return loader.load(movieInfoId)
+                .onErrorResume(e -> !(e instanceof ReviewsClientException), e -> {
+                    log.warn("Serving movie {} without reviews: {}", movieInfoId, e.toString());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(List.of());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        loader.bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        loader.dispose();
+    }
+}
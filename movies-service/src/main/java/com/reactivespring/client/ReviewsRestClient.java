@@ -0,0 +1,92 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.DownstreamServerException;
+import com.reactivespring.exception.ReviewsClientException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Component
+public class ReviewsRestClient {
+
+    // Reactor Netty's default limit on the initial line of a request
+    static final int MAX_REQUEST_LINE_LENGTH = 4096;
+    // "GET ", "?" and " HTTP/1.1" around the url
+    private static final int REQUEST_LINE_OVERHEAD = 14;
+
+    WebClient webClient;
+    DownstreamClientProperties properties;
+
+    public ReviewsRestClient(@Qualifier("reviewsWebClient") WebClient webClient, DownstreamClientProperties properties) {
+        this.webClient = webClient;
+        this.properties = properties;
+    }
+
+    public Flux<Review> retrieveReviews(String movieInfoId) {
+        return retrieve(webClient.get()
+                .uri(properties.getReviewsUrl() + "?movieInfoId={movieInfoId}", movieInfoId));
+    }
+
+    /**
+     * Reviews of all the given movies, one {@code movieInfoIds} parameter per movie. The ids are split over as few
+     * requests as keep each request line within {@link #MAX_REQUEST_LINE_LENGTH}; usually that is one.
+     */
+    public Flux<Review> retrieveReviews(Collection<String> movieInfoIds) {
+        return Flux.fromIterable(requestChunks(movieInfoIds))
+                .flatMap(ids -> retrieve(webClient.get()
+                        .uri(properties.getReviewsUrl() + "?" + IntStream.range(0, ids.size())
+                                .mapToObj(i -> "movieInfoIds={movieInfoId" + i + "}")
+                                .collect(Collectors.joining("&")), ids.toArray())));
+    }
+
+    /**
+     * Groups the ids by their encoded length, as ids are values of uri variables and so are fully encoded.
+     */
+    private List<List<String>> requestChunks(Collection<String> movieInfoIds) {
+        int budget = MAX_REQUEST_LINE_LENGTH - REQUEST_LINE_OVERHEAD - properties.getReviewsUrl().length();
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int length = 0;
+        for (String id : movieInfoIds) {
+            int paramLength = "movieInfoIds=".length() + UriUtils.encode(id, StandardCharsets.UTF_8).length() + 1;
+            if (!chunk.isEmpty() && length + paramLength > budget) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                length = 0;
+            }
+            chunk.add(id);
+            length += paramLength;
+        }
+        if (!chunk.isEmpty())
+            chunks.add(chunk);
+        return chunks;
+    }
+
+    private Flux<Review> retrieve(WebClient.RequestHeadersSpec<?> request) {
+        return request
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() && !HttpStatus.NOT_FOUND.equals(status), clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(ReviewsClientException::new))
+                .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new DownstreamServerException("Server Exception in ReviewsService " + body)))
+                .bodyToFlux(Review.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty())
+                .timeout(properties.getCallTimeout());
+    }
+}
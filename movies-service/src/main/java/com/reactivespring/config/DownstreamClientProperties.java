@@ -0,0 +1,63 @@
+package com.reactivespring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+/**
+ * Endpoints, connection pool sizing, timeouts, encoding, concurrency limits, hedging and review batching of the calls to movies-info-service and movies-review-service.
+ */
+@Data
+@ConfigurationProperties(prefix = "moviesservice.client")
+public class DownstreamClientProperties {
+
+    private String moviesInfoUrl;
+    private String reviewsUrl;
+    private int maxConnections = 200;
+    private int pendingAcquireMaxCount = 1000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration responseTimeout = Duration.ofSeconds(2);
+    private Duration callTimeout = Duration.ofSeconds(3);
+    private boolean http2;
+    private boolean compression;
+    private MediaType moviesInfoMediaType = MediaType.APPLICATION_JSON;
+    private int reviewsBatchSize = 50;
+    private Duration reviewsBatchWindow = Duration.ofMillis(5);
+    private int reviewsBatchConcurrency = 8;
+    private Limit limit = new Limit();
+    private Hedge moviesInfoHedge = new Hedge();
+    private Hedge reviewsHedge = new Hedge();
+
+    /**
+     * Bounds and tuning of the adaptive concurrency limit applied to each downstream service.
+     */
+    @Data
+    public static class Limit {
+
+        private int initial = 20;
+        private int min = 5;
+        private int max = 200;
+        private double rttTolerance = 1.5;
+        private double smoothing = 0.2;
+        private int longWindow = 600;
+    }
+
+    /**
+     * Opt-in hedging of GET calls to one downstream service.
+     */
+    @Data
+    public static class Hedge {
+
+        private boolean enabled;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(5);
+        private int window = 1000;
+        private int minSamples = 100;
+        private double budgetRatio = 0.1;
+        private int maxBurst = 10;
+    }
+}
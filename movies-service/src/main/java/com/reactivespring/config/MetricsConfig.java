@@ -0,0 +1,42 @@
+package com.reactivespring.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reactor Netty server and client metrics, which Spring Boot does not switch on by itself. Boot already records
+ * {@code http.server.requests} and {@code http.client.requests}, tagged with the route or uri template rather
+ * than the raw path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final int MAX_NETTY_URI_TAGS = 20;
+
+    @Bean
+    public NettyServerCustomizer nettyServerMetrics() {
+        return httpServer -> httpServer.metrics(true, MetricsConfig::uriTag);
+    }
+
+    @Bean
+    public MeterFilter nettyServerUriTagLimit() {
+        return MeterFilter.maximumAllowableTags("reactor.netty.http.server", "uri", MAX_NETTY_URI_TAGS, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter nettyClientUriTagLimit() {
+        return MeterFilter.maximumAllowableTags("reactor.netty.http.client", "uri", MAX_NETTY_URI_TAGS, MeterFilter.deny());
+    }
+
+    /**
+     * Reactor Netty only sees raw paths, so only the first path segment is kept as the {@code uri} tag.
+     */
+    static String uriTag(String uri) {
+        int query = uri.indexOf('?');
+        String path = query < 0 ? uri : uri.substring(0, query);
+        int secondSegment = path.indexOf('/', 1);
+        return secondSegment < 0 ? path : path.substring(0, secondSegment) + "/**";
+    }
+}
@@ -0,0 +1,117 @@
+package com.reactivespring.config;
+
+import com.reactivespring.util.AdaptiveConcurrencyLimiter;
+import com.reactivespring.util.RequestHedger;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Pooled, keep-alive {@link WebClient}s over one shared connection pool, so concurrent requests reuse
+ * connections instead of paying a handshake per call. With {@code http2} on, cleartext HTTP/2 is negotiated
+ * and many calls are multiplexed over each connection. Each downstream service gets its own client so that
+ * its adaptive concurrency limit reacts to its latency alone.
+ */
+@Configuration
+@EnableConfigurationProperties(DownstreamClientProperties.class)
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(DownstreamClientProperties properties) {
+        return ConnectionProvider.builder("movies-downstream")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .evictInBackground(properties.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter moviesInfoConcurrencyLimiter(DownstreamClientProperties properties) {
+        return concurrencyLimiter("moviesInfo", properties.getLimit());
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter reviewsConcurrencyLimiter(DownstreamClientProperties properties) {
+        return concurrencyLimiter("reviews", properties.getLimit());
+    }
+
+    @Bean
+    public RequestHedger moviesInfoRequestHedger(DownstreamClientProperties properties) {
+        return requestHedger("moviesInfo", properties.getMoviesInfoHedge());
+    }
+
+    @Bean
+    public RequestHedger reviewsRequestHedger(DownstreamClientProperties properties) {
+        return requestHedger("reviews", properties.getReviewsHedge());
+    }
+
+    @Bean
+    public WebClient moviesInfoWebClient(WebClient.Builder webClientBuilder, ConnectionProvider downstreamConnectionProvider,
+                                         AdaptiveConcurrencyLimiter moviesInfoConcurrencyLimiter, RequestHedger moviesInfoRequestHedger,
+                                         DownstreamClientProperties properties) {
+        return webClient(webClientBuilder, downstreamConnectionProvider, moviesInfoConcurrencyLimiter,
+                properties.getMoviesInfoHedge().isEnabled() ? moviesInfoRequestHedger : null, properties);
+    }
+
+    @Bean
+    public WebClient reviewsWebClient(WebClient.Builder webClientBuilder, ConnectionProvider downstreamConnectionProvider,
+                                      AdaptiveConcurrencyLimiter reviewsConcurrencyLimiter, RequestHedger reviewsRequestHedger,
+                                      DownstreamClientProperties properties) {
+        return webClient(webClientBuilder, downstreamConnectionProvider, reviewsConcurrencyLimiter,
+                properties.getReviewsHedge().isEnabled() ? reviewsRequestHedger : null, properties);
+    }
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter(String name, DownstreamClientProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimiter(name, limit.getInitial(), limit.getMin(), limit.getMax(),
+                limit.getRttTolerance(), limit.getSmoothing(), limit.getLongWindow());
+    }
+
+    private RequestHedger requestHedger(String name, DownstreamClientProperties.Hedge hedge) {
+        return new RequestHedger(name, hedge.getPercentile(), hedge.getMinDelay(), hedge.getWindow(),
+                hedge.getMinSamples(), hedge.getBudgetRatio(), hedge.getMaxBurst());
+    }
+
+    /**
+     * The hedging filter sits outside the concurrency limit, so every hedge attempt takes its own slot and a
+     * hedge rejected for being over the limit simply does not run. A slot is held until the response body has
+     * been read, not just its headers, so a slow body counts against the limit and towards the round trip.
+     */
+    private WebClient webClient(WebClient.Builder webClientBuilder, ConnectionProvider downstreamConnectionProvider,
+                                AdaptiveConcurrencyLimiter concurrencyLimiter, RequestHedger requestHedger,
+                                DownstreamClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(downstreamConnectionProvider)
+                .protocol(properties.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .compress(properties.isCompression())
+                .metrics(true, MetricsConfig::uriTag);
+        if (requestHedger != null) {
+            webClientBuilder.filter(hedgingFilter(requestHedger));
+        }
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter((request, next) -> concurrencyLimiter.limit(next.exchange(request),
+                        (response, release) -> response.mutate().body(body -> body.doFinally(release)).build()))
+                .build();
+    }
+
+    static ExchangeFilterFunction hedgingFilter(RequestHedger requestHedger) {
+        return (request, next) -> HttpMethod.GET.equals(request.method())
+                ? requestHedger.hedge(() -> next.exchange(request))
+                : next.exchange(request);
+    }
+}
@@ -0,0 +1,48 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.exception.DownstreamOverloadedException;
+import com.reactivespring.exception.DownstreamServerException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.ReviewsClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.concurrent.TimeoutException;
+
+@ControllerAdvice
+@Slf4j
+public class GlobalErrorHandler {
+
+    @ExceptionHandler(MoviesInfoClientException.class)
+    public ResponseEntity<String> handleClientException(MoviesInfoClientException e) {
+        log.error("Caught MoviesInfoClientException: {}", e.getMessage());
+        return ResponseEntity.status(e.getStatusCode()).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ReviewsClientException.class)
+    public ResponseEntity<String> handleClientException(ReviewsClientException e) {
+        log.error("Caught ReviewsClientException: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(DownstreamServerException.class)
+    public ResponseEntity<String> handleServerException(DownstreamServerException e) {
+        log.error("Caught DownstreamServerException: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(e.getMessage());
+    }
+
+    @ExceptionHandler(DownstreamOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(DownstreamOverloadedException e) {
+        log.warn("Rejected downstream call: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<String> handleTimeout(TimeoutException e) {
+        log.error("Downstream call timed out: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,33 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.Movie;
+import com.reactivespring.service.MoviesService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/movies")
+public class MoviesController {
+
+    MoviesService moviesService;
+
+    public MoviesController(MoviesService moviesService) {
+        this.moviesService = moviesService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Movie> retrieveMovieById(@PathVariable("id") String movieId) {
+        return moviesService.retrieveMovieById(movieId);
+    }
+
+    @GetMapping
+    public Flux<Movie> retrieveMoviesByYear(@RequestParam("year") Integer year,
+                                            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return moviesService.retrieveMoviesByYear(year, limit);
+    }
+}
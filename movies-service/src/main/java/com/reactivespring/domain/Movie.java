@@ -1,4 +1,4 @@
-package com.reactivespring.exception;
+package com.reactivespring.domain;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,12 +7,11 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
-public class ErrorResponse {
+@AllArgsConstructor
+public class Movie {
 
-    private String statusCode;
-    private String reason;
-    private List<String> errorMsgs;
+    private MoviesInfo movieInfo;
+    private List<Review> reviewList;
 
 }
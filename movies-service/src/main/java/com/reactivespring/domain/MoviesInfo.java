@@ -0,0 +1,20 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviesInfo {
+
+    private String movieInfoId;
+    private String name;
+    private Integer year;
+    private List<String> cast;
+    private String releaseDate;
+
+}
@@ -0,0 +1,8 @@
+package com.reactivespring.exception;
+
+public class DownstreamOverloadedException extends RuntimeException {
+
+    public DownstreamOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.reactivespring.exception;
+
+public class DownstreamServerException extends RuntimeException {
+
+    public DownstreamServerException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.reactivespring.exception;
+
+public class ReviewsClientException extends RuntimeException {
+
+    public ReviewsClientException(String message) {
+        super(message);
+    }
+}
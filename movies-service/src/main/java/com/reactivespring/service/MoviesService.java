@@ -0,0 +1,54 @@
+package com.reactivespring.service;
+
+import com.reactivespring.client.MoviesInfoRestClient;
+import com.reactivespring.client.ReviewsBatchLoader;
+import com.reactivespring.domain.Movie;
+import com.reactivespring.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class MoviesService implements MeterBinder {
+
+    MoviesInfoRestClient moviesInfoRestClient;
+    ReviewsBatchLoader reviewsBatchLoader;
+    SingleFlight<String, Movie> movieLookups = new SingleFlight<>("movie");
+
+    public MoviesService(MoviesInfoRestClient moviesInfoRestClient, ReviewsBatchLoader reviewsBatchLoader) {
+        this.moviesInfoRestClient = moviesInfoRestClient;
+        this.reviewsBatchLoader = reviewsBatchLoader;
+    }
+
+    /**
+     * Concurrent requests for the same id share one pair of downstream calls.
+     */
+    public Mono<Movie> retrieveMovieById(String movieId) {
+        return movieLookups.execute(movieId, this::aggregate);
+    }
+
+    /**
+     * The review lookups of the whole page land in the same batching window and go out as one request.
+     */
+    public Flux<Movie> retrieveMoviesByYear(int year, int limit) {
+        return moviesInfoRestClient.retrieveMovieInfosByYear(year, limit)
+                .flatMapSequential(movieInfo -> reviewsBatchLoader.load(movieInfo.getMovieInfoId())
+                        .map(reviews -> new Movie(movieInfo, reviews)));
+    }
+
+    /**
+     * Both downstream calls are subscribed at once by {@code zip}, so the result takes about as long as the
+     * slower of the two rather than their sum.
+     */
+    private Mono<Movie> aggregate(String movieId) {
+        return Mono.zip(moviesInfoRestClient.retrieveMovieInfo(movieId), reviewsBatchLoader.load(movieId))
+                .map(tuple -> new Movie(tuple.getT1(), tuple.getT2()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        movieLookups.bindTo(registry);
+    }
+}
@@ -0,0 +1,163 @@
+package com.reactivespring.util;
+
+import com.reactivespring.exception.DownstreamOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Latency-aware concurrency limit for calls to one downstream service, following the gradient approach of
+ * Netflix's concurrency-limits: the limit shrinks while recent round trips are slower than the long-term
+ * average by more than {@code rttTolerance}, and grows by {@code sqrt(limit)} while they are not and the
+ * limit is actually being used. Calls over the limit fail immediately with {@link DownstreamOverloadedException}
+ * rather than queueing for a connection.
+ * <p>
+ * Published as {@code concurrency.limit}, {@code concurrency.inflight} and {@code concurrency.rejected},
+ * tagged with {@code name}.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    final String name;
+    final int minLimit;
+    final int maxLimit;
+    final double rttTolerance;
+    final double smoothing;
+    final double longRttDecay;
+    final AtomicInteger inflight = new AtomicInteger();
+    final LongAdder rejected = new LongAdder();
+
+    volatile double estimatedLimit;
+    volatile int limit;
+    double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double rttTolerance, double smoothing, int longWindow) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.longRttDecay = 2.0 / (longWindow + 1);
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Runs {@code call} if the limit allows it, feeding its round trip back into the limit. Cancelled calls
+     * release their slot without contributing a sample.
+     */
+    public <T> Mono<T> limit(Mono<T> call) {
+        return limit(call, null);
+    }
+
+    /**
+     * Like {@link #limit(Mono)}, except that once {@code call} emits, its slot is handed to {@code holdUntil}
+     * along with the release. It attaches the release to whatever work the value still carries, like a response
+     * body yet to be read, so the slot and the round trip cover that work too. The release runs once; it takes the
+     * signal that ended the work, and a cancel releases without contributing a sample.
+     */
+    public <T> Mono<T> limit(Mono<T> call, BiFunction<T, Consumer<SignalType>, T> holdUntil) {
+        return Mono.defer(() -> {
+            int inflightAtStart = tryAcquire();
+            if (inflightAtStart < 0) {
+                rejected.increment();
+                return Mono.error(new DownstreamOverloadedException(name + " is over its concurrency limit of " + limit));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            Consumer<SignalType> release = signal -> {
+                if (released.compareAndSet(false, true)) {
+                    inflight.decrementAndGet();
+                    if (signal != SignalType.CANCEL) {
+                        onSample(System.nanoTime() - start, inflightAtStart);
+                    }
+                }
+            };
+            if (holdUntil == null) {
+                return call.doFinally(release);
+            }
+            AtomicBoolean handedOff = new AtomicBoolean();
+            return call
+                    .map(value -> {
+                        T held = holdUntil.apply(value, release);
+                        handedOff.set(true);
+                        return held;
+                    })
+                    .doFinally(signal -> {
+                        if (!handedOff.get()) {
+                            release.accept(signal);
+                        }
+                    });
+        });
+    }
+
+    private int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    synchronized void onSample(long rttNanos, int inflightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - longRttDecay) + rttNanos * longRttDecay;
+        // After a sustained slowdown the long-term average lags far behind; pull it down so recovery is not stalled
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // Fast responses while the limit is mostly unused say nothing about how much more the service can take
+        if (inflightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name)
+                .description("Current concurrency limit")
+                .register(registry);
+        Gauge.builder("concurrency.inflight", this, AdaptiveConcurrencyLimiter::getInflight)
+                .tag("name", name)
+                .description("Calls currently in flight")
+                .register(registry);
+        FunctionCounter.builder("concurrency.rejected", rejected, LongAdder::sum)
+                .tag("name", name)
+                .description("Calls rejected for being over the limit")
+                .register(registry);
+    }
+}
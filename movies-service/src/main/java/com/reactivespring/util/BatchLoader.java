@@ -0,0 +1,97 @@
+package com.reactivespring.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collects single-key lookups arriving within {@code maxWait} of each other, up to {@code maxBatchSize}, into one
+ * call of the batch function and hands each waiting subscriber the value for its own key. Keys missing from the
+ * batch result complete empty; a failed batch fails every lookup in it.
+ * <p>
+ * Published as {@code batchloader.batches} and {@code batchloader.keys}, tagged with {@code name}.
+ */
+public class BatchLoader<K, V> implements Disposable, MeterBinder {
+
+    private static final Sinks.EmitFailureHandler RETRY_CONCURRENT_EMIT = Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1));
+
+    final String name;
+    final Function<List<K>, Mono<Map<K, V>>> batchFunction;
+    final Sinks.Many<Pending<K, V>> requests = Sinks.many().unicast().onBackpressureBuffer();
+    final Disposable batches;
+    final LongAdder batchCount = new LongAdder();
+    final LongAdder keyCount = new LongAdder();
+
+    public BatchLoader(String name, Function<List<K>, Mono<Map<K, V>>> batchFunction,
+                       int maxBatchSize, Duration maxWait, int maxConcurrentBatches) {
+        this.name = name;
+        this.batchFunction = batchFunction;
+        this.batches = requests.asFlux()
+                .bufferTimeout(maxBatchSize, maxWait, true)
+                .flatMap(this::dispatch, maxConcurrentBatches)
+                .subscribe();
+    }
+
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            Sinks.One<V> result = Sinks.one();
+            requests.emitNext(new Pending<>(key, result), RETRY_CONCURRENT_EMIT);
+            return result.asMono();
+        });
+    }
+
+    private Mono<Void> dispatch(List<Pending<K, V>> batch) {
+        var keys = batch.stream().map(Pending::key).distinct().toList();
+        batchCount.increment();
+        keyCount.add(keys.size());
+        return Mono.defer(() -> batchFunction.apply(keys))
+                .defaultIfEmpty(Map.of())
+                .doOnNext(values -> batch.forEach(pending -> pending.complete(values.get(pending.key()))))
+                .doOnError(e -> batch.forEach(pending -> pending.result().tryEmitError(e)))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    @Override
+    public void dispose() {
+        requests.tryEmitComplete();
+        batches.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return batches.isDisposed();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("batchloader.batches", batchCount, LongAdder::sum)
+                .tag("name", name)
+                .description("Batch calls issued")
+                .register(registry);
+        FunctionCounter.builder("batchloader.keys", keyCount, LongAdder::sum)
+                .tag("name", name)
+                .description("Distinct keys requested across all batch calls")
+                .register(registry);
+    }
+
+    record Pending<K, V>(K key, Sinks.One<V> result) {
+
+        void complete(V value) {
+            if (value == null) {
+                result.tryEmitEmpty();
+            } else {
+                result.tryEmitValue(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.reactivespring.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges calls that are slower than usual: if a call has not answered within the {@code percentile} of recent
+ * latencies, a second identical call is started and whichever answers first wins, the other being cancelled.
+ * Only use it for idempotent calls.
+ * <p>
+ * Extra load is capped by a budget: every call earns {@code budgetRatio} of a hedge, up to {@code maxBurst}
+ * hedges saved up, so a slowdown that affects every call cannot double the traffic. A failing hedge never wins;
+ * the original call decides the outcome. No hedging happens until {@code minSamples} latencies were observed.
+ * <p>
+ * Published as {@code hedge.calls}, {@code hedge.hedged}, {@code hedge.wins}, {@code hedge.budget.exhausted}
+ * and {@code hedge.delay}, tagged with {@code name}.
+ */
+public class RequestHedger implements MeterBinder {
+
+    private static final long MILLI_TOKENS = 1000;
+
+    final String name;
+    final double percentile;
+    final long minDelayNanos;
+    final int minSamples;
+    final long depositMilliTokens;
+    final long maxMilliTokens;
+    final long[] latencies;
+    final int recomputeEvery;
+    final AtomicLong budget = new AtomicLong();
+    final LongAdder calls = new LongAdder();
+    final LongAdder hedged = new LongAdder();
+    final LongAdder wins = new LongAdder();
+    final LongAdder budgetExhausted = new LongAdder();
+
+    int nextLatency;
+    long recorded;
+    volatile long delayNanos = -1;
+
+    public RequestHedger(String name, double percentile, Duration minDelay, int window, int minSamples,
+                         double budgetRatio, int maxBurst) {
+        this.name = name;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.minSamples = Math.min(minSamples, window);
+        this.depositMilliTokens = Math.round(budgetRatio * MILLI_TOKENS);
+        this.maxMilliTokens = maxBurst * MILLI_TOKENS;
+        this.latencies = new long[window];
+        this.recomputeEvery = Math.max(1, Math.min(minSamples, window / 10));
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            calls.increment();
+            deposit();
+            Mono<T> primary = timed(call.get(), true);
+            long delay = delayNanos;
+            if (delay < 0) {
+                return primary;
+            }
+            Mono<T> backup = Mono.delay(Duration.ofNanos(delay))
+                    .flatMap(tick -> {
+                        if (!withdraw()) {
+                            budgetExhausted.increment();
+                            return Mono.never();
+                        }
+                        hedged.increment();
+                        return timed(call.get(), false)
+                                .doOnNext(value -> wins.increment())
+                                .onErrorResume(e -> Mono.never());
+                    });
+            return Mono.firstWithSignal(primary, backup);
+        });
+    }
+
+    /**
+     * Records the latency of a call that answers. An original call cancelled because its hedge won was slow, so
+     * it records its time so far, a lower bound: leaving it out would keep the slowest calls out of the window and
+     * pull the delay down. A cancelled hedge started late and says nothing about the latency, so it records nothing.
+     */
+    private <T> Mono<T> timed(Mono<T> call, boolean recordCancelled) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> record(System.nanoTime() - start))
+                    .doOnCancel(() -> {
+                        if (recordCancelled) {
+                            record(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[nextLatency] = latencyNanos;
+        nextLatency = (nextLatency + 1) % latencies.length;
+        recorded++;
+        if (recorded >= minSamples && recorded % recomputeEvery == 0) {
+            var window = Arrays.copyOf(latencies, (int) Math.min(recorded, latencies.length));
+            Arrays.sort(window);
+            long delay = window[(int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1)];
+            delayNanos = Math.max(minDelayNanos, delay);
+        }
+    }
+
+    private void deposit() {
+        budget.getAndUpdate(tokens -> Math.min(maxMilliTokens, tokens + depositMilliTokens));
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long tokens = budget.get();
+            if (tokens < MILLI_TOKENS) {
+                return false;
+            }
+            if (budget.compareAndSet(tokens, tokens - MILLI_TOKENS)) {
+                return true;
+            }
+        }
+    }
+
+    public long getHedged() {
+        return hedged.sum();
+    }
+
+    public Duration getDelay() {
+        long delay = delayNanos;
+        return delay < 0 ? null : Duration.ofNanos(delay);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hedge.calls", calls, LongAdder::sum)
+                .tag("name", name)
+                .description("Calls eligible for hedging")
+                .register(registry);
+        FunctionCounter.builder("hedge.hedged", hedged, LongAdder::sum)
+                .tag("name", name)
+                .description("Hedge calls started")
+                .register(registry);
+        FunctionCounter.builder("hedge.wins", wins, LongAdder::sum)
+                .tag("name", name)
+                .description("Hedge calls that answered before the original")
+                .register(registry);
+        FunctionCounter.builder("hedge.budget.exhausted", budgetExhausted, LongAdder::sum)
+                .tag("name", name)
+                .description("Hedges skipped because the budget was used up")
+                .register(registry);
+        TimeGauge.builder("hedge.delay", this, TimeUnit.NANOSECONDS, hedger -> Math.max(0, hedger.delayNanos))
+                .tag("name", name)
+                .description("Current hedging delay")
+                .register(registry);
+    }
+}
@@ -0,0 +1,87 @@
+package com.reactivespring.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent lookups for the same key into one in-flight call. The call is started by the first
+ * subscriber and is not tied to any subscriber's lifetime: a subscriber cancelling only stops its own delivery.
+ * Once the call completes the key is released, so results are never cached beyond the overlap.
+ * <p>
+ * Published as {@code singleflight.calls}, {@code singleflight.coalesced} and {@code singleflight.inflight},
+ * tagged with {@code name}.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    final String name;
+    final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    final LongAdder calls = new LongAdder();
+    final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            calls.increment();
+            var created = new CompletableFuture<V>();
+            var existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+            start(key, loader, created);
+            return Mono.fromFuture(created, true);
+        });
+    }
+
+    private void start(K key, Function<K, Mono<V>> loader, CompletableFuture<V> result) {
+        Mono<V> call;
+        try {
+            call = loader.apply(key);
+        } catch (RuntimeException e) {
+            call = Mono.error(e);
+        }
+        call.toFuture().whenComplete((value, error) -> {
+            inFlight.remove(key, result);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("singleflight.calls", calls, LongAdder::sum)
+                .tag("name", name)
+                .description("Lookups requested")
+                .register(registry);
+        FunctionCounter.builder("singleflight.coalesced", coalesced, LongAdder::sum)
+                .tag("name", name)
+                .description("Lookups served by joining a call already in flight")
+                .register(registry);
+        Gauge.builder("singleflight.inflight", inFlight, ConcurrentHashMap::size)
+                .tag("name", name)
+                .description("Distinct keys with a call in flight")
+                .register(registry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.DownstreamServerException;
+import com.reactivespring.exception.ReviewsClientException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewsBatchLoaderTest {
+
+    ReviewsRestClient reviewsRestClient = mock(ReviewsRestClient.class);
+    CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .ignoreExceptions(ReviewsClientException.class)
+            .build());
+    ReviewsBatchLoader reviewsBatchLoader = new ReviewsBatchLoader(reviewsRestClient, properties(), circuitBreakerRegistry);
+
+    @AfterEach
+    void tearDown() {
+        reviewsBatchLoader.destroy();
+    }
+
+    @Test
+    void load() {
+        //given
+        when(reviewsRestClient.retrieveReviews(anyCollection()))
+                .thenReturn(Flux.just(new Review("1", "Inception-2010", "Awesome Movie", 9.0)));
+
+        //then
+        StepVerifier.create(reviewsBatchLoader.load("Inception-2010"))
+                .expectNextMatches(reviews -> reviews.size() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void load_DegradesWhenReviewServiceFails() {
+        //given
+        when(reviewsRestClient.retrieveReviews(anyCollection()))
+                .thenReturn(Flux.error(new DownstreamServerException("Server Exception in ReviewsService")));
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(reviewsBatchLoader.load("Inception-2010"))
+                    .expectNext(List.of())
+                    .verifyComplete();
+        }
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker(ReviewsBatchLoader.CIRCUIT_BREAKER).getState());
+        verify(reviewsRestClient, times(2)).retrieveReviews(anyCollection());
+    }
+
+    @Test
+    void load_ClientErrorIsNotDegraded() {
+        //given
+        when(reviewsRestClient.retrieveReviews(anyCollection()))
+                .thenReturn(Flux.error(new ReviewsClientException("movieInfoIds : pass between 1 and 500 ids")));
+
+        //then
+        StepVerifier.create(reviewsBatchLoader.load("Inception-2010"))
+                .expectError(ReviewsClientException.class)
+                .verify();
+    }
+
+    private static DownstreamClientProperties properties() {
+        var properties = new DownstreamClientProperties();
+        properties.setReviewsBatchWindow(Duration.ofMillis(1));
+        return properties;
+    }
+}
@@ -0,0 +1,77 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewsRestClientTest {
+
+    Queue<String> requestUris = new ConcurrentLinkedQueue<>();
+    Queue<String> requestedIds = new ConcurrentLinkedQueue<>();
+
+    DisposableServer reviewsStub = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/reviews", (request, response) -> {
+                requestUris.add(request.uri());
+                requestedIds.addAll(new QueryStringDecoder(request.uri()).parameters().get("movieInfoIds"));
+                return response.header("Content-Type", "application/json")
+                        .sendString(Mono.just("[]"));
+            }))
+            .bindNow();
+
+    ReviewsRestClient reviewsRestClient = new ReviewsRestClient(WebClient.create(), properties());
+
+    @AfterEach
+    void tearDown() {
+        reviewsStub.disposeNow();
+    }
+
+    @Test
+    void retrieveReviews_CommaInTitle() {
+        //when
+        StepVerifier.create(reviewsRestClient.retrieveReviews(List.of("Crouching Tiger, Hidden Dragon-2000", "Inception-2010")))
+                .verifyComplete();
+
+        //then
+        assertEquals(1, requestUris.size());
+        assertEquals(List.of("Crouching Tiger, Hidden Dragon-2000", "Inception-2010"), List.copyOf(requestedIds));
+    }
+
+    @Test
+    void retrieveReviews_SplitsLongRequests() {
+        //given
+        var movieInfoIds = IntStream.range(0, 100)
+                .mapToObj(i -> "A Movie With A Rather Long Title & Subtitle Number " + i + "-2010")
+                .collect(Collectors.toList());
+
+        //when
+        StepVerifier.create(reviewsRestClient.retrieveReviews(movieInfoIds))
+                .verifyComplete();
+
+        //then
+        assertTrue(requestUris.size() > 1);
+        requestUris.forEach(uri -> assertTrue(("GET " + uri + " HTTP/1.1").length() <= ReviewsRestClient.MAX_REQUEST_LINE_LENGTH, uri));
+        assertEquals(movieInfoIds.stream().sorted().toList(), requestedIds.stream().sorted().toList());
+    }
+
+    private DownstreamClientProperties properties() {
+        var properties = new DownstreamClientProperties();
+        properties.setReviewsUrl("http://localhost:" + reviewsStub.port() + "/reviews");
+        return properties;
+    }
+}
@@ -0,0 +1,77 @@
+package com.reactivespring.config;
+
+import com.reactivespring.util.RequestHedger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a stub where every 50th request stalls, as if it hit a slow instance. Latencies are compared
+ * between the plain and the hedged client rather than against fixed bounds, so a slow machine does not fail it.
+ */
+class HedgingFilterTest {
+
+    static final Duration FAST = Duration.ofMillis(5);
+    static final Duration SLOW = Duration.ofMillis(300);
+    static final int CALLS = 500;
+
+    static final AtomicInteger requests = new AtomicInteger();
+
+    static final DisposableServer stub = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/moviesInfo/get/{movieId}", (request, response) -> response
+                    .sendString(Mono.just("Inception").delayElement(requests.incrementAndGet() % 50 == 0 ? SLOW : FAST))))
+            .bindNow();
+
+    @AfterAll
+    static void stopStub() {
+        stub.disposeNow();
+    }
+
+    @Test
+    void hedgingCutsTheTail() {
+        //given
+        var hedger = new RequestHedger("moviesInfo", 0.9, Duration.ofMillis(5), 1000, 100, 0.1, 10);
+        var plain = WebClient.builder().baseUrl("http://localhost:" + stub.port()).build();
+        var hedged = WebClient.builder().baseUrl("http://localhost:" + stub.port())
+                .filter(WebClientConfig.hedgingFilter(hedger))
+                .build();
+        p99(hedged);
+        long hedgedBefore = hedger.getHedged();
+
+        //when
+        var plainP99 = p99(plain);
+        var hedgedP99 = p99(hedged);
+
+        //then
+        long hedgedDuring = hedger.getHedged() - hedgedBefore;
+        assertTrue(hedgedP99.multipliedBy(3).compareTo(plainP99) < 0, "hedged p99 " + hedgedP99 + ", plain p99 " + plainP99);
+        assertTrue(hedgedDuring >= CALLS / 50 / 2, "hedged " + hedgedDuring + " of " + CALLS / 50 + " stalled calls");
+        assertTrue(hedger.getHedged() < CALLS * 2 * 0.1 + 10, "hedged " + hedger.getHedged());
+    }
+
+    private Duration p99(WebClient webClient) {
+        List<Long> latencies = Flux.range(0, CALLS)
+                .flatMap(i -> webClient.get()
+                        .uri("/moviesInfo/get/{movieId}", "Inception-2010")
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .elapsed()
+                        .map(Tuple2::getT1), 8)
+                .sort()
+                .collectList()
+                .block();
+        return Duration.ofMillis(latencies.get((int) Math.ceil(0.99 * latencies.size()) - 1));
+    }
+}
@@ -0,0 +1,134 @@
+package com.reactivespring.integration;
+
+import com.reactivespring.domain.Movie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the aggregator against local stub servers for movies-info-service and movies-review-service that each
+ * answer after {@link #DOWNSTREAM_DELAY}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient(timeout = "10s")
+class MoviesControllerIntegrationTest {
+
+    static final Duration DOWNSTREAM_DELAY = Duration.ofMillis(500);
+
+    static final DisposableServer moviesInfoStub = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/moviesInfo/get", (request, response) -> response.header("Content-Type", "application/json")
+                            .sendString(Mono.just("""
+                                    [{"movieInfoId":"Inception-2010","name":"Inception","year":2010},
+                                     {"movieInfoId":"Shutter Island-2010","name":"Shutter Island","year":2010},
+                                     {"movieInfoId":"Toy Story 3-2010","name":"Toy Story 3","year":2010}]
+                                    """)))
+                    .get("/moviesInfo/get/{movieId}", (request, response) -> {
+                        if (!"Inception-2010".equals(request.param("movieId")))
+                            return response.status(404).send();
+                        return response.header("Content-Type", "application/json")
+                                .sendString(Mono.just("""
+                                        {"movieInfoId":"Inception-2010","name":"Inception","year":2010,"cast":["Leonardo DiCaprio"],"releaseDate":"2010-07-16"}
+                                        """).delayElement(DOWNSTREAM_DELAY));
+                    }))
+            .bindNow();
+
+    static final AtomicInteger reviewRequests = new AtomicInteger();
+
+    static final DisposableServer reviewsStub = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/reviews", (request, response) -> {
+                reviewRequests.incrementAndGet();
+                return response.header("Content-Type", "application/json")
+                        .sendString(Mono.just("""
+                                [{"reviewId":"1","movieInfoId":"Inception-2010","comment":"Awesome Movie","rating":9.0}]
+                                """).delayElement(DOWNSTREAM_DELAY));
+            }))
+            .bindNow();
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void downstreamUrls(DynamicPropertyRegistry registry) {
+        registry.add("moviesservice.client.movies-info-url", () -> "http://localhost:" + moviesInfoStub.port() + "/moviesInfo");
+        registry.add("moviesservice.client.reviews-url", () -> "http://localhost:" + reviewsStub.port() + "/reviews");
+        registry.add("moviesservice.client.reviews-batch-window", () -> "100ms");
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        moviesInfoStub.disposeNow();
+        reviewsStub.disposeNow();
+    }
+
+    @Test
+    void retrieveMovieById() {
+        //given
+        retrieve("Inception-2010");
+
+        //when
+        long start = System.nanoTime();
+        var movie = retrieve("Inception-2010");
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        //then
+        assertEquals("Inception", movie.getMovieInfo().getName());
+        assertEquals(1, movie.getReviewList().size());
+        assertTrue(elapsed.compareTo(DOWNSTREAM_DELAY.multipliedBy(2)) < 0, "downstream calls ran sequentially: " + elapsed);
+    }
+
+    @Test
+    void retrieveMovieById_NotFound() {
+        webTestClient.get()
+                .uri("/movies/{id}", "Unknown-1999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void retrieveMoviesByYear_BatchesReviewLookups() {
+        //given
+        reviewRequests.set(0);
+
+        //when
+        var movies = webTestClient.get()
+                .uri("/movies?year={year}", 2010)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Movie.class)
+                .returnResult()
+                .getResponseBody();
+
+        //then
+        assertEquals(3, movies.size());
+        assertEquals(1, movies.get(0).getReviewList().size());
+        assertEquals(0, movies.get(1).getReviewList().size());
+        assertEquals(1, reviewRequests.get());
+    }
+
+    private Movie retrieve(String movieId) {
+        return webTestClient.get()
+                .uri("/movies/{id}", movieId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Movie.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
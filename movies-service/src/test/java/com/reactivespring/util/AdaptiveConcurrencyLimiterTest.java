@@ -0,0 +1,109 @@
+package com.reactivespring.util;
+
+import com.reactivespring.exception.DownstreamOverloadedException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 100, 1.5, 0.2, 600);
+
+    @Test
+    void callsOverTheLimitFailFast() {
+        //given
+        var pending = Sinks.<String>one();
+        limiter.limit(pending.asMono()).subscribe();
+        limiter.limit(pending.asMono()).subscribe();
+
+        //when
+        StepVerifier.create(limiter.limit(Mono.just("over")))
+                .expectError(DownstreamOverloadedException.class)
+                .verify();
+        pending.tryEmitValue("done");
+
+        //then
+        assertEquals(1, limiter.getRejected());
+        assertEquals(0, limiter.getInflight());
+        StepVerifier.create(limiter.limit(Mono.just("under")))
+                .expectNext("under")
+                .verifyComplete();
+    }
+
+    @Test
+    void cancelledCallsReleaseTheirSlot() {
+        //given
+        var call = limiter.limit(Mono.never()).subscribe();
+
+        //when
+        call.dispose();
+
+        //then
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void slotHeldUntilHandedOffWorkEnds() {
+        //given
+        var body = Sinks.<String>one();
+        var response = limiter.limit(Mono.just(body.asMono()), (pendingBody, release) -> pendingBody.doFinally(release)).block();
+
+        //when
+        int inflightBeforeBody = limiter.getInflight();
+        StepVerifier.create(response)
+                .then(() -> body.tryEmitValue("done"))
+                .expectNext("done")
+                .verifyComplete();
+
+        //then
+        assertEquals(1, inflightBeforeBody);
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteady() {
+        //when
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(RTT, limiter.getLimit());
+        }
+
+        //then
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyClimbs() {
+        //given
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(RTT, limiter.getLimit());
+        }
+        int steadyLimit = limiter.getLimit();
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(RTT * 10, limiter.getLimit());
+        }
+
+        //then
+        assertTrue(limiter.getLimit() < steadyLimit / 2, "limit " + limiter.getLimit() + " from " + steadyLimit);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyUnused() {
+        //when
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(RTT, 0);
+        }
+
+        //then
+        assertEquals(2, limiter.getLimit());
+    }
+}
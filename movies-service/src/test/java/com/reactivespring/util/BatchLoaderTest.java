@@ -0,0 +1,95 @@
+package com.reactivespring.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchLoaderTest {
+
+    List<List<String>> batches = new CopyOnWriteArrayList<>();
+    BatchLoader<String, String> batchLoader;
+
+    @AfterEach
+    void tearDown() {
+        batchLoader.dispose();
+    }
+
+    @Test
+    void lookupsWithinWindowShareOneBatch() {
+        //given
+        batchLoader = loader(100, Duration.ofMillis(50), keys -> Mono.just(keys.stream()
+                .collect(Collectors.toMap(Function.identity(), String::toUpperCase))));
+        var keys = IntStream.range(0, 50).mapToObj(i -> "movie-" + i).toList();
+
+        //when
+        var values = Flux.fromIterable(keys)
+                .flatMapSequential(batchLoader::load)
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(keys.stream().map(String::toUpperCase).toList(), values);
+        assertEquals(1, batches.size());
+        assertEquals(50, batches.get(0).size());
+    }
+
+    @Test
+    void batchIsCappedAtMaxSizeAndKeysAreDeduplicated() {
+        //given
+        batchLoader = loader(10, Duration.ofSeconds(5), keys -> Mono.just(keys.stream()
+                .collect(Collectors.toMap(Function.identity(), String::toUpperCase))));
+
+        //when
+        Flux.range(0, 20)
+                .map(i -> "movie-" + (i % 5))
+                .flatMap(batchLoader::load)
+                .blockLast(Duration.ofSeconds(1));
+
+        //then
+        assertEquals(2, batches.size());
+        assertEquals(5, batches.get(0).size());
+    }
+
+    @Test
+    void missingKeysCompleteEmpty() {
+        //given
+        batchLoader = loader(10, Duration.ofMillis(10), keys -> Mono.just(Map.of("movie-1", "MOVIE-1")));
+
+        //then
+        StepVerifier.create(batchLoader.load("movie-2"))
+                .verifyComplete();
+    }
+
+    @Test
+    void failedBatchFailsEveryLookup() {
+        //given
+        batchLoader = loader(10, Duration.ofMillis(10), keys -> Mono.error(new IllegalStateException("boom")));
+
+        //then
+        StepVerifier.create(Flux.merge(batchLoader.load("movie-1"), batchLoader.load("movie-2")))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(batchLoader.load("movie-3"))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private BatchLoader<String, String> loader(int maxBatchSize, Duration maxWait, Function<List<String>, Mono<Map<String, String>>> batchFunction) {
+        return new BatchLoader<>("test", keys -> {
+            batches.add(keys);
+            return batchFunction.apply(keys);
+        }, maxBatchSize, maxWait, 4);
+    }
+}
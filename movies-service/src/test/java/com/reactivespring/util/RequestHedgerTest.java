@@ -0,0 +1,58 @@
+package com.reactivespring.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestHedgerTest {
+
+    RequestHedger hedger = new RequestHedger("test", 0.9, Duration.ofMillis(1), 100, 1, 1.0, 10);
+
+    @Test
+    void originalCancelledByItsHedgeIsRecorded() {
+        //given
+        hedger.record(Duration.ofMillis(1).toNanos());
+        var attempts = new AtomicInteger();
+
+        //when
+        StepVerifier.create(hedger.hedge(() -> attempts.getAndIncrement() == 0 ? Mono.never() : Mono.just("hedge")))
+                .expectNext("hedge")
+                .verifyComplete();
+
+        //then
+        assertEquals(1, hedger.getHedged());
+        assertEquals(3, hedger.recorded);
+    }
+
+    @Test
+    void cancelledHedgeIsNotRecorded() {
+        //given
+        hedger.record(Duration.ofMillis(1).toNanos());
+        var attempts = new AtomicInteger();
+
+        //when
+        StepVerifier.create(hedger.hedge(() -> attempts.getAndIncrement() == 0
+                        ? Mono.delay(Duration.ofMillis(50)).thenReturn("original")
+                        : Mono.never()))
+                .expectNext("original")
+                .verifyComplete();
+
+        //then
+        assertEquals(1, hedger.getHedged());
+        assertEquals(2, hedger.recorded);
+    }
+
+    @Test
+    void cancelledCallIsRecorded() {
+        //when
+        hedger.hedge(Mono::never).subscribe().dispose();
+
+        //then
+        assertEquals(1, hedger.recorded);
+    }
+}
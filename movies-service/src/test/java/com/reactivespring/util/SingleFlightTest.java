@@ -0,0 +1,73 @@
+package com.reactivespring.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SingleFlightTest {
+
+    SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+
+    @Test
+    void concurrentLookupsShareOneCall() {
+        //given
+        var subscriptions = new AtomicInteger();
+        var downstream = Sinks.<String>one();
+        var call = downstream.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        //when
+        var first = singleFlight.execute("Inception-2010", id -> call).toFuture();
+        var second = singleFlight.execute("Inception-2010", id -> call).toFuture();
+        downstream.tryEmitValue("Inception");
+
+        //then
+        assertEquals("Inception", first.join());
+        assertEquals("Inception", second.join());
+        assertEquals(1, subscriptions.get());
+        assertEquals(2, singleFlight.calls());
+        assertEquals(1, singleFlight.coalesced());
+    }
+
+    @Test
+    void cancellingOneSubscriberDoesNotCancelTheSharedCall() {
+        //given
+        var cancelled = new AtomicInteger();
+        var downstream = Sinks.<String>one();
+        var call = downstream.asMono().doOnCancel(cancelled::incrementAndGet);
+
+        //when
+        var abandoned = singleFlight.execute("Inception-2010", id -> call).subscribe();
+        var remaining = singleFlight.execute("Inception-2010", id -> call).toFuture();
+        abandoned.dispose();
+        downstream.tryEmitValue("Inception");
+
+        //then
+        assertEquals("Inception", remaining.join());
+        assertEquals(0, cancelled.get());
+    }
+
+    @Test
+    void keyIsReleasedAfterCompletion() {
+        //given
+        var subscriptions = new AtomicInteger();
+
+        //when
+        StepVerifier.create(singleFlight.execute("Inception-2010", id -> Mono.<String>error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(singleFlight.execute("Inception-2010", id -> Mono.just("Inception").doOnSubscribe(s -> subscriptions.incrementAndGet())))
+                .expectNext("Inception")
+                .verifyComplete();
+
+        //then
+        assertEquals(1, subscriptions.get());
+        assertEquals(0, singleFlight.coalesced());
+        assertFalse(singleFlight.inFlight.containsKey("Inception-2010"));
+    }
+}